@@ -0,0 +1,60 @@
+package com.example.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+/**
+ * Synthetic tables shaped like the mst tables: a uuid key followed by a repeating mix of
+ * code, name, timestamp, numeric and foreign key columns.
+ */
+final class BenchmarkTables {
+
+    private static final String[][] COLUMN_KINDS = {
+            {"code", "varchar"},
+            {"name_en", "varchar"},
+            {"date", "timestamp"},
+            {"amount", "numeric"},
+            {"ref_guid", "uuid"},
+            {"status", "varchar"},
+            {"remarks", "text"},
+            {"count", "integer"},
+            {"modified", "timestamp with time zone"},
+    };
+
+    private BenchmarkTables() {
+    }
+
+    static TableDescriptor table(int columnCount) {
+        List<ColumnDescriptor> columns = new ArrayList<>(columnCount);
+        columns.add(new ColumnDescriptor(0, "row_guid", "uuid", 0, false, false, true, false));
+        for (int i = 1; i < columnCount; i++) {
+            String[] kind = COLUMN_KINDS[(i - 1) % COLUMN_KINDS.length];
+            columns.add(new ColumnDescriptor(i, "c" + i + "_" + kind[0], kind[1], 50, true, false, false, false));
+        }
+        return new TableDescriptor("mst", "bench_" + columnCount, columns, List.of("row_guid"), List.of(), List.of());
+    }
+
+    /** One row as JdbcTemplate.queryForList would return it. */
+    static Map<String, Object> row(TableDescriptor descriptor, int rowIndex) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        Timestamp ts = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(rowIndex));
+        for (ColumnDescriptor col : descriptor.getColumns()) {
+            Object value = switch (col.getType()) {
+                case TIMESTAMP, TIMESTAMP_TZ -> ts;
+                case NUMERIC -> new java.math.BigDecimal("12.50");
+                case INTEGER -> rowIndex;
+                case UUID -> java.util.UUID.nameUUIDFromBytes((col.getName() + rowIndex).getBytes());
+                default -> col.getName() + "-" + rowIndex;
+            };
+            row.put(col.getName(), value);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.service.CheckConstraintParser;
+
+/**
+ * Parsing of pg_get_constraintdef output for the /check dropdown endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckConstraintParserBenchmark {
+
+    private final List<String> defs = List.of(
+            "CHECK (((status)::text = ANY ((ARRAY['ACTIVE'::character varying, 'INACTIVE'::character varying, 'DELETED'::character varying])::text[])))",
+            "CHECK ((gender)::text = ANY ((ARRAY['M'::character varying, 'F'::character varying, 'O'::character varying])::text[]))",
+            "CHECK ((priority IN (1, 2, 3, 4, 5)))",
+            "CHECK ((amount >= (0)::numeric))");
+
+    @Benchmark
+    public List<String> parseArrayConstraint() {
+        return CheckConstraintParser.parse(defs, "status");
+    }
+
+    @Benchmark
+    public List<String> parseInConstraint() {
+        return CheckConstraintParser.parse(defs, "priority");
+    }
+}
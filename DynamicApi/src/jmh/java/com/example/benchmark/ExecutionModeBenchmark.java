@@ -0,0 +1,118 @@
+package com.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.config.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Request handling under high concurrency in both execution modes: "platform" hands each request
+ * to a fixed pool of 200 threads (Tomcat's default), "virtual" to one virtual thread per request
+ * with JDBC bounded by {@link BoundedDataSource}. A request reads a row from in-memory H2 through
+ * a Hikari pool, holds the connection for {@code queryMillis}, then blocks for {@code waitMillis}
+ * without one (other I/O, writing the response).
+ * <p>
+ * Throughput is reported in requests/ms and the client-side latency percentiles (p0.99) by
+ * SampleTime. The virtual mode needs a Java 21 runtime; on older ones run {@code -p mode=platform}.
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ExecutionModeBenchmark"
+ * </pre>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(1000)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({ "platform", "virtual" })
+    public String mode;
+
+    @Param({ "50" })
+    public int poolSize;
+
+    @Param({ "2" })
+    public int queryMillis;
+
+    @Param({ "20" })
+    public int waitMillis;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:execution_mode;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(poolSize);
+        pool.setConnectionTimeout(60_000);
+
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS zone (zone_guid INT PRIMARY KEY, zone_code VARCHAR(20))");
+            statement.execute("DELETE FROM zone");
+            for (int i = 0; i < ROWS; i++) {
+                statement.execute("INSERT INTO zone VALUES (" + i + ", 'Z" + i + "')");
+            }
+        }
+
+        if ("virtual".equals(mode)) {
+            executor = virtualThreadPerTaskExecutor();
+            dataSource = new BoundedDataSource(pool, poolSize, 60_000);
+        } else {
+            executor = Executors.newFixedThreadPool(200);
+            dataSource = pool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public String request() throws Exception {
+        return executor.submit(this::handle).get();
+    }
+
+    private String handle() throws Exception {
+        String code;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT zone_code FROM zone WHERE zone_guid = ?")) {
+            ps.setInt(1, ThreadLocalRandom.current().nextInt(ROWS));
+            try (ResultSet rs = ps.executeQuery()) {
+                code = rs.next() ? rs.getString(1) : null;
+            }
+            // database time: H2 answers in microseconds, a real server does not
+            Thread.sleep(queryMillis);
+        }
+        Thread.sleep(waitMillis);
+        return code;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is Java 21 API, the build targets Java 17
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, run with -p mode=platform", e);
+        }
+    }
+}
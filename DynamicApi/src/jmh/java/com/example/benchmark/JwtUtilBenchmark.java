@@ -0,0 +1,47 @@
+package com.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.security.JwtUtil;
+
+/**
+ * Token generation and verification, with and without the verified-claims cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "dynamicApiRestrictedForAuthenticatedUserOnly421421";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, false, 0);
+        cachingJwtUtil = new JwtUtil(SECRET, true, 10_000);
+        token = jwtUtil.generateToken("admin");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("admin");
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cachingJwtUtil.extractUsername(token);
+    }
+}
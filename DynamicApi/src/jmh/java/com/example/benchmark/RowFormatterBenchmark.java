@@ -0,0 +1,64 @@
+package com.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.model.RowFormatter;
+import com.example.model.TableDescriptor;
+
+/**
+ * Formatting of getAll-style results. Each invocation copies the raw rows (as queryForList would
+ * produce them) and formats the copies; {@link #copyOnly} is the baseline to subtract.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowFormatterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int columns;
+
+    @Param({"100"})
+    public int rows;
+
+    private RowFormatter formatter;
+    private List<Map<String, Object>> rawRows;
+
+    @Setup
+    public void setup() {
+        TableDescriptor descriptor = BenchmarkTables.table(columns);
+        formatter = descriptor.getRowFormatter();
+        rawRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            rawRows.add(BenchmarkTables.row(descriptor, i));
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> copyOnly() {
+        List<Map<String, Object>> result = new ArrayList<>(rawRows.size());
+        for (Map<String, Object> raw : rawRows) {
+            result.add(new LinkedHashMap<>(raw));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> copyAndFormat() {
+        List<Map<String, Object>> result = new ArrayList<>(rawRows.size());
+        for (Map<String, Object> raw : rawRows) {
+            Map<String, Object> row = new LinkedHashMap<>(raw);
+            formatter.formatInPlace(row);
+            result.add(row);
+        }
+        return result;
+    }
+}
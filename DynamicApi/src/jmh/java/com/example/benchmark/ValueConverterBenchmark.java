@@ -0,0 +1,52 @@
+package com.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.model.ColumnDescriptor;
+import com.example.service.ValueConverter;
+
+/**
+ * {@link ValueConverter#convert} for every type branch, as called once per column on insert / update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueConverterBenchmark {
+
+    @Param({"integer", "bigint", "numeric", "double precision", "boolean", "date", "uuid", "jsonb",
+            "timestamp", "timestamp with time zone", "time", "varchar", "code"})
+    public String type;
+
+    private ColumnDescriptor column;
+    private String value;
+
+    @Setup
+    public void setup() {
+        String typeName = "code".equals(type) ? "varchar" : type;
+        String name = "code".equals(type) ? "zone_code" : "col";
+        column = new ColumnDescriptor(1, name, typeName, 50, true, false, false, false);
+
+        value = switch (type) {
+            case "integer", "bigint" -> "12345";
+            case "numeric", "double precision" -> "1234.56";
+            case "boolean" -> "true";
+            case "date" -> "2024-03-15";
+            case "uuid" -> "3f2c4a8e-1b6d-4c3e-9a51-7f0e2d9b8c41";
+            case "jsonb" -> "{\"a\":1,\"b\":[1,2,3]}";
+            case "timestamp", "timestamp with time zone" -> "2024-03-15T10:20:30.123";
+            case "time" -> "10:20:30";
+            case "code" -> " zn-001 ";
+            default -> "some text value";
+        };
+    }
+
+    @Benchmark
+    public Object convert() {
+        return ValueConverter.convert(value, column);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small thread-safe LRU cache with a time-to-live, a maximum number of entries and optionally
+ * a maximum total weight (e.g. bytes). Keeps hit / miss / eviction counters so callers can
+ * expose them.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long weight; // guarded by entries
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param name       name used in stats output
+     * @param maxEntries maximum number of entries kept, least recently used is evicted first
+     * @param ttlMillis  time-to-live of an entry, 0 or less means entries never expire
+     */
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        this(name, maxEntries, ttlMillis, 0, null);
+    }
+
+    /**
+     * @param maxWeight maximum total weight of the entries, least recently used are evicted
+     *                  first; a single value heavier than this is not stored. 0 means no limit
+     * @param weigher   weight of a value, only used with a positive maxWeight
+     */
+    public BoundedCache(String name, int maxEntries, long ttlMillis, long maxWeight, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : 0;
+        this.maxWeight = weigher != null && maxWeight > 0 ? maxWeight : 0;
+        this.weigher = this.maxWeight > 0 ? weigher : null;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the cached value or null when missing or expired.
+     */
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                weight -= entry.weight;
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Returns the cached value like {@link #getIfPresent}, without counting a hit or a miss;
+     * for lookups that only inspect what is cached.
+     */
+    public V peek(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry == null || entry.isExpired(System.nanoTime()) ? null : entry.value;
+        }
+    }
+
+    /**
+     * Stores a value using the default time-to-live of this cache.
+     */
+    public void put(K key, V value) {
+        putWithExpiry(key, value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : Long.MAX_VALUE);
+    }
+
+    /**
+     * Stores a value that expires at the given {@link System#nanoTime()} instant,
+     * or earlier when the default time-to-live is shorter.
+     */
+    public void putWithExpiry(K key, V value, long expiresAtNanos) {
+        if (value == null) return;
+
+        long expiresAt = expiresAtNanos;
+        if (ttlNanos > 0) {
+            expiresAt = Math.min(expiresAt, System.nanoTime() + ttlNanos);
+        }
+
+        long valueWeight = weigher == null ? 0 : weigher.applyAsLong(value);
+
+        synchronized (entries) {
+            if (maxWeight > 0 && valueWeight > maxWeight) {
+                Entry<V> previous = entries.remove(key);
+                if (previous != null) weight -= previous.weight;
+                return;
+            }
+
+            Entry<V> previous = entries.put(key, new Entry<>(value, expiresAt, valueWeight));
+            weight += valueWeight - (previous == null ? 0 : previous.weight);
+
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries || (maxWeight > 0 && weight > maxWeight)) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Removes every entry whose key matches the predicate.
+     *
+     * @return number of removed entries
+     */
+    public int invalidateIf(Predicate<K> predicate) {
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> next = it.next();
+                if (predicate.test(next.getKey())) {
+                    weight -= next.getValue().weight;
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Total weight of the entries, 0 without a weigher. */
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Snapshot of the counters, suitable to be returned from an endpoint.
+     */
+    public Map<String, Object> stats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMillis", ttlNanos / 1_000_000L);
+        if (maxWeight > 0) {
+            stats.put("weight", getWeight());
+            stats.put("maxWeight", maxWeight);
+        }
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+        private final long weight;
+
+        private Entry(V value, long expiresAtNanos, long weight) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.weight = weight;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAtNanos != Long.MAX_VALUE && now - expiresAtNanos >= 0;
+        }
+    }
+}
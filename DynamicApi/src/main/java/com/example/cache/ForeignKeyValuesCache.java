@@ -0,0 +1,109 @@
+package com.example.cache;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+import com.example.model.ForeignKeyDescriptor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Responses of the fk-values dropdown endpoint, per parent table and display column and then
+ * per query (search text, limit, cursor). Every write of a parent table through the API drops
+ * all entries of that table, since inserts add options just as updates and deletes change them.
+ * Entries hold the serialized JSON, so the size limit is in bytes: an unpaged response is the
+ * whole parent table. A DDL change drops everything, as it can change the display column.
+ */
+@Component
+public class ForeignKeyValuesCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ForeignKeyValuesCache.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final BoundedCache<String, byte[]> cache;
+
+    public ForeignKeyValuesCache(
+            @Value("${dropdown.fk-values.cache.enabled:true}") boolean enabled,
+            @Value("${dropdown.fk-values.cache.max-entries:2000}") int maxEntries,
+            @Value("${dropdown.fk-values.cache.max-bytes:33554432}") long maxBytes,
+            @Value("${dropdown.fk-values.cache.ttl-seconds:300}") long ttlSeconds) {
+
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>("fkValues", maxEntries, ttlSeconds * 1000L, maxBytes, bytes -> bytes.length);
+        log.info("FK values cache enabled={} maxEntries={} maxBytes={} ttl={}s", enabled, maxEntries, maxBytes, ttlSeconds);
+    }
+
+    /**
+     * Response for the query as JSON, from the cache or loaded on a miss.
+     */
+    public ResponseEntity<?> get(ForeignKeyDescriptor fk, String query, Supplier<Object> loader) {
+        if (!enabled) {
+            return ResponseEntity.ok(loader.get());
+        }
+
+        String key = fk.getQualifiedPkTable() + "|" + fk.getDisplayColumnOrPk() + "|" + query;
+        byte[] json = cache.getIfPresent(key);
+        if (json != null) {
+            return ok(json);
+        }
+
+        Object response = loader.get();
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize fk-values response of {}: {}", key, e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+        cache.put(key, json);
+        return ok(json);
+    }
+
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (!enabled) return;
+
+        if (event.getType() == TableChangeEvent.Type.DDL) {
+            invalidateAll();
+            return;
+        }
+
+        String prefix = event.getQualifiedName() + "|";
+        int removed = cache.invalidateIf(key -> key.startsWith(prefix));
+        if (removed > 0) {
+            log.debug("Dropped {} cached fk-values responses after {}", removed, event);
+        }
+    }
+
+    @EventListener
+    public void onFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        return stats;
+    }
+
+    private static ResponseEntity<byte[]> ok(byte[] json) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+}
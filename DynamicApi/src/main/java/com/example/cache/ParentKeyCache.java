@@ -0,0 +1,93 @@
+package com.example.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+import com.example.model.ForeignKeyDescriptor;
+
+/**
+ * Short-lived set of parent key values known to exist, for the reference tables of the
+ * configured schemas (mst by default). Only positive lookups are kept, so a missing parent
+ * is always checked against the database. Entries of a table are dropped when rows of that
+ * table are updated or deleted through the API.
+ * <p>
+ * Off unless validation.parent-cache.enabled is set: a parent deleted any other way still
+ * passes validation until its entry expires, and the write then fails on the database's
+ * foreign key instead of the named error.
+ */
+@Component
+public class ParentKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ParentKeyCache.class);
+
+    private final boolean enabled;
+    private final Set<String> schemas;
+    private final BoundedCache<String, Boolean> cache;
+
+    public ParentKeyCache(
+            @Value("${validation.parent-cache.enabled:false}") boolean enabled,
+            @Value("${validation.parent-cache.schemas:mst}") Set<String> schemas,
+            @Value("${validation.parent-cache.max-entries:50000}") int maxEntries,
+            @Value("${validation.parent-cache.ttl-seconds:60}") long ttlSeconds) {
+
+        this.enabled = enabled;
+        this.schemas = Set.copyOf(schemas);
+        this.cache = new BoundedCache<>("parentKeys", maxEntries, ttlSeconds * 1000L);
+        log.info("Parent key cache enabled={} schemas={} maxEntries={} ttl={}s", enabled, schemas, maxEntries, ttlSeconds);
+    }
+
+    /** True when parent keys of the referenced table are cached at all. */
+    public boolean covers(ForeignKeyDescriptor fk) {
+        return enabled && schemas.contains(fk.getPkTableSchema());
+    }
+
+    public boolean isKnown(ForeignKeyDescriptor fk, String value) {
+        return covers(fk) && cache.getIfPresent(key(fk, value)) != null;
+    }
+
+    public void markExisting(ForeignKeyDescriptor fk, String value) {
+        if (covers(fk)) {
+            cache.put(key(fk, value), Boolean.TRUE);
+        }
+    }
+
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (!enabled || event.getType() == TableChangeEvent.Type.INSERT || !schemas.contains(event.getSchema())) {
+            return;
+        }
+        String prefix = event.getQualifiedName() + ".";
+        int removed = cache.invalidateIf(key -> key.startsWith(prefix));
+        if (removed > 0) {
+            log.debug("Dropped {} cached parent keys after {}", removed, event);
+        }
+    }
+
+    @EventListener
+    public void onFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        stats.put("schemas", schemas);
+        return stats;
+    }
+
+    private static String key(ForeignKeyDescriptor fk, String value) {
+        return fk.getQualifiedPkTable() + "." + fk.getPkColumn() + "=" + value;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Read-through cache of read responses (list, by id, search) for the configured tables, meant
+ * for reference / master tables that are read far more often than written. Entries are keyed
+ * by table and request shape and hold the serialized JSON, so the size limit is in bytes.
+ * <p>
+ * Every write through the API drops the table's entries. A response loaded while the table's
+ * {@link TableVersions data version} changed is returned but not stored, so a read racing a
+ * write never caches the old rows.
+ */
+@Component
+public class ResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    @FunctionalInterface
+    public interface Loader {
+        ResponseEntity<?> load() throws SQLException;
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    private final boolean enabled;
+    private final List<String> tablePatterns = new ArrayList<>();
+    private final BoundedCache<String, byte[]> cache;
+
+    public ResultCache(
+            @Value("${result-cache.enabled:false}") boolean enabled,
+            @Value("${result-cache.tables:}") String tables,
+            @Value("${result-cache.max-entries:1000}") int maxEntries,
+            @Value("${result-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${result-cache.ttl-seconds:300}") long ttlSeconds) {
+
+        this.enabled = enabled;
+        for (String pattern : tables.split(",")) {
+            if (!pattern.isBlank()) {
+                tablePatterns.add(pattern.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        this.cache = new BoundedCache<>("results", maxEntries, ttlSeconds * 1000L, maxBytes, bytes -> bytes.length);
+        log.info("Result cache enabled={} tables={} maxEntries={} maxBytes={} ttl={}s",
+                enabled, tablePatterns, maxEntries, maxBytes, ttlSeconds);
+    }
+
+    /** Whether reads of the table are cached: listed as "schema.table" or "schema.*". */
+    public boolean covers(String schema, String table) {
+        if (!enabled) return false;
+
+        String qualified = qualify(schema, table);
+        String schemaWildcard = schema.toLowerCase(Locale.ROOT) + ".*";
+        for (String pattern : tablePatterns) {
+            if (pattern.equals(qualified) || pattern.equals(schemaWildcard) || pattern.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cached response for the request shape, loaded on a miss. Only successful responses with
+     * a body are stored; anything else is returned as loaded.
+     */
+    public ResponseEntity<?> get(String schema, String table, String shape, Loader loader) throws SQLException {
+        String qualified = qualify(schema, table);
+        String key = qualified + "|" + shape;
+
+        byte[] json = cache.getIfPresent(key);
+        if (json != null) {
+            return ok(json);
+        }
+
+        long version = tableVersions.dataVersion(schema, table);
+        ResponseEntity<?> response = loader.load();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+
+        try {
+            json = objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize response of {} for the result cache: {}", key, e.getMessage());
+            return response;
+        }
+        if (tableVersions.dataVersion(schema, table) == version) {
+            cache.put(key, json);
+        }
+        return ok(json);
+    }
+
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (!enabled) return;
+
+        String prefix = qualify(event.getSchema(), event.getTable()) + "|";
+        int removed = cache.invalidateIf(key -> key.startsWith(prefix));
+        if (removed > 0) {
+            log.debug("Dropped {} cached results after {}", removed, event);
+        }
+    }
+
+    @EventListener
+    public void onFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        stats.put("tables", tablePatterns);
+        return stats;
+    }
+
+    private static String qualify(String schema, String table) {
+        return (schema + "." + table).toLowerCase(Locale.ROOT);
+    }
+
+    private static ResponseEntity<byte[]> ok(byte[] json) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cache;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+
+/**
+ * Generated SQL text per statement shape: table, operation and the column set or filter shape
+ * involved, e.g. {@code mst.zone|insert|zone_code,zone_name_en}. Builders only use identifiers
+ * from the table metadata, so the text is identical for every request of a shape; together
+ * with the driver's prepareThreshold each connection then reuses one server-side prepared
+ * statement per shape instead of parsing and planning every call.
+ * <p>
+ * DDL (or a flush) drops every template, since shapes are built from the old metadata.
+ */
+@Component
+public class SqlTemplateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTemplateCache.class);
+
+    private final boolean enabled;
+    private final BoundedCache<String, String> cache;
+
+    public SqlTemplateCache(
+            @Value("${sql.template-cache.enabled:true}") boolean enabled,
+            @Value("${sql.template-cache.max-entries:5000}") int maxEntries) {
+
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>("sqlTemplates", maxEntries, 0);
+        log.info("SQL template cache enabled={} maxEntries={}", enabled, maxEntries);
+    }
+
+    /** Key of a shape: its parts joined by '|'. */
+    public static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            if (key.length() > 0) key.append('|');
+            key.append(part);
+        }
+        return key.toString();
+    }
+
+    public String get(String key, Supplier<String> builder) {
+        if (!enabled) {
+            return builder.get();
+        }
+
+        String sql = cache.getIfPresent(key);
+        if (sql == null) {
+            sql = builder.get();
+            cache.put(key, sql);
+            log.debug("New SQL shape {}", key);
+        }
+        return sql;
+    }
+
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (event.getType() == TableChangeEvent.Type.DDL) {
+            invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** size is the number of distinct shapes held; misses counts the shapes built. */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        return stats;
+    }
+}
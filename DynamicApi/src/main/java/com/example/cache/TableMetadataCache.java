@@ -0,0 +1,169 @@
+package com.example.cache;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+import com.example.model.TableDescriptor;
+
+/**
+ * Per (schema, table) cache of catalog metadata, so that write requests do not
+ * walk {@link java.sql.DatabaseMetaData} on every call.
+ * <p>
+ * Concurrent misses on one table share a single load. A load overlapped by an invalidation
+ * is returned to its callers but not cached, so the next call reads the catalog again.
+ */
+@Component
+public class TableMetadataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TableMetadataCache.class);
+
+    private final boolean enabled;
+    private final BoundedCache<String, Loaded> cache;
+
+    // sequence number of the load, kept with the descriptor so both share the cache's bounds
+    private final AtomicLong loads = new AtomicLong();
+
+    private record Loaded(TableDescriptor descriptor, long version) {}
+
+    // loads running now, one per key; entries only live for the duration of a load
+    private final Map<String, CompletableFuture<TableDescriptor>> inFlight = new ConcurrentHashMap<>();
+
+    // bumped by every invalidation, a load only caches its result when it did not change
+    private long invalidations; // guarded by inFlight
+
+    @FunctionalInterface
+    public interface Loader {
+        TableDescriptor load(String schema, String table) throws SQLException;
+    }
+
+    public TableMetadataCache(
+            @Value("${metadata.cache.enabled:true}") boolean enabled,
+            @Value("${metadata.cache.max-entries:500}") int maxEntries,
+            @Value("${metadata.cache.ttl-seconds:600}") long ttlSeconds) {
+
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>("tableMetadata", maxEntries, ttlSeconds * 1000L);
+        log.info("Table metadata cache enabled={} maxEntries={} ttl={}s", enabled, maxEntries, ttlSeconds);
+    }
+
+    public TableDescriptor get(String schema, String table, Loader loader) throws SQLException {
+        if (!enabled) {
+            return loader.load(schema, table);
+        }
+
+        String key = key(schema, table);
+        Loaded cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.descriptor();
+        }
+
+        CompletableFuture<TableDescriptor> load = new CompletableFuture<>();
+        CompletableFuture<TableDescriptor> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            long generation;
+            synchronized (inFlight) {
+                generation = invalidations;
+            }
+            TableDescriptor metadata = loader.load(schema, table);
+            synchronized (inFlight) {
+                if (generation == invalidations) {
+                    cache.put(key, new Loaded(metadata, loads.incrementAndGet()));
+                    log.debug("Cached metadata for {}", key);
+                } else {
+                    log.debug("Metadata of {} invalidated while loading, not cached", key);
+                }
+            }
+            load.complete(metadata);
+            return metadata;
+        } catch (SQLException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static TableDescriptor await(CompletableFuture<TableDescriptor> load) throws SQLException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+
+    /**
+     * Version of a descriptor returned by {@link #get}: changes with every reload (expiry,
+     * invalidation, DDL). -1 when it is no longer the cached one, or with the cache disabled.
+     */
+    public long version(String schema, String table, TableDescriptor descriptor) {
+        Loaded current = cache.peek(key(schema, table));
+        return current != null && current.descriptor() == descriptor ? current.version() : -1;
+    }
+
+    /** Whether metadata of the table is cached and has columns, i.e. the table exists as named. */
+    public boolean contains(String schema, String table) {
+        Loaded current = cache.peek(key(schema, table));
+        return current != null && !current.descriptor().getColumns().isEmpty();
+    }
+
+    public void invalidate(String schema, String table) {
+        log.info("Invalidating metadata cache for {}.{}", schema, table);
+        String key = key(schema, table);
+        synchronized (inFlight) {
+            invalidations++;
+            // later callers start a fresh load instead of joining one that may read old metadata
+            inFlight.remove(key);
+            cache.invalidate(key);
+        }
+    }
+
+    // descriptors embed their parent tables, so a DDL change anywhere drops them all
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (event.getType() == TableChangeEvent.Type.DDL) {
+            invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        log.info("Invalidating whole metadata cache");
+        synchronized (inFlight) {
+            invalidations++;
+            inFlight.clear();
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        return stats;
+    }
+
+    private static String key(String schema, String table) {
+        return schema + "." + table;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cache;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.event.CacheFlushEvent;
+import com.example.event.TableChangeEvent;
+
+/**
+ * Per-table data versions: the number of writes to the table through the API (on any node, or
+ * DDL) plus cache flushes since startup, so a version grows whenever data of the table may have
+ * changed. Counters start at zero on every node; anything comparing versions across requests
+ * must include {@link #getInstanceId()}.
+ */
+@Component
+public class TableVersions {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong flushes = new AtomicLong();
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public long dataVersion(String schema, String table) {
+        AtomicLong version = versions.get(key(schema, table));
+        return (version == null ? 0 : version.get()) + flushes.get();
+    }
+
+    // before the caches drop their entries, so a load that saw the old version cannot store stale rows
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTableChange(TableChangeEvent event) {
+        versions.computeIfAbsent(key(event.getSchema(), event.getTable()), k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onFlush(CacheFlushEvent event) {
+        flushes.incrementAndGet();
+    }
+
+    private static String key(String schema, String table) {
+        return (schema + "." + table).toLowerCase(Locale.ROOT);
+    }
+}
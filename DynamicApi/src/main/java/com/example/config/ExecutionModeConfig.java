@@ -0,0 +1,66 @@
+package com.example.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Request execution mode. With spring.threads.virtual.enabled=true Spring Boot runs Tomcat
+ * request handling (and its task executors) on virtual threads; that needs a Java 21 runtime and
+ * is ignored on older ones. JDBC access is then bounded by a {@link BoundedDataSource} sized to
+ * the connection pool, so thousands of virtual threads queue for a permit instead of the pool.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true needs Java 21, running on Java {}: requests use platform threads", javaVersion);
+        } else {
+            log.info("Request execution: {} threads", virtualThreads ? "virtual" : "platform");
+        }
+    }
+
+    // static: post-processors are created before the rest of the configuration
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment env) {
+        boolean enabled = env.getProperty("dynamic.api.jdbc.bounded.enabled", Boolean.class,
+                env.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        int permits = env.getProperty("dynamic.api.jdbc.bounded.permits", Integer.class, 0);
+        long acquireTimeoutMillis = env.getProperty("dynamic.api.jdbc.bounded.acquire-timeout-ms", Long.class, 30_000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+
+                // pool properties are bound by now; the pool may already be wrapped (statement timing)
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                int maxPermits = permits > 0 ? permits : hikari != null ? hikari.getMaximumPoolSize() : 10;
+                log.info("JDBC access of '{}' bounded to {} concurrent connections (acquire timeout {} ms)",
+                        beanName, maxPermits, acquireTimeoutMillis);
+                return new BoundedDataSource(dataSource, maxPermits, acquireTimeoutMillis);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.event.InvalidationBus;
+import com.example.event.LocalInvalidationBus;
+import com.example.event.PostgresInvalidationBus;
+
+/**
+ * Cache invalidation between nodes. cache.invalidation.bus=local (default) keeps invalidation
+ * inside this JVM, which is all a single node needs; postgres relays it to every node over
+ * LISTEN/NOTIFY. With cache.invalidation.ddl-trigger.install=true an event trigger reporting
+ * DDL on tables is installed at startup (needs a superuser; db/cache-invalidation-ddl-trigger.sql
+ * can be run by a DBA instead).
+ */
+@Configuration
+public class InvalidationBusConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBusConfig.class);
+
+    private static final String DDL_TRIGGER_SCRIPT = "db/cache-invalidation-ddl-trigger.sql";
+
+    @Value("${cache.invalidation.bus:local}")
+    private String busType;
+
+    @Value("${cache.invalidation.postgres.poll-ms:500}")
+    private long pollMillis;
+
+    @Value("${cache.invalidation.postgres.reconnect-delay-ms:5000}")
+    private long reconnectDelayMillis;
+
+    @Value("${cache.invalidation.ddl-trigger.install:false}")
+    private boolean installDdlTrigger;
+
+    @Value("${spring.datasource.url:}")
+    private String url;
+
+    @Value("${spring.datasource.username:#{null}}")
+    private String username;
+
+    @Value("${spring.datasource.password:#{null}}")
+    private String password;
+
+    // PostgresInvalidationBus.shutdown() is picked up as the destroy method
+    @Bean
+    public InvalidationBus invalidationBus(JdbcTemplate jdbcTemplate) {
+        if (!"postgres".equalsIgnoreCase(busType)) {
+            log.info("Cache invalidation: local only");
+            return new LocalInvalidationBus();
+        }
+
+        if (installDdlTrigger) {
+            installDdlTrigger(jdbcTemplate);
+        }
+
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(jdbcTemplate, url, username, password,
+                pollMillis, reconnectDelayMillis);
+        bus.start();
+        return bus;
+    }
+
+    private void installDdlTrigger(JdbcTemplate jdbcTemplate) {
+        try {
+            String script = new ClassPathResource(DDL_TRIGGER_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+            // one simple-query round trip, the driver keeps the dollar-quoted function body intact
+            jdbcTemplate.execute(script);
+            log.info("Installed DDL invalidation trigger from {}", DDL_TRIGGER_SCRIPT);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not install DDL invalidation trigger (needs a superuser), metadata is "
+                    + "only refreshed on expiry or /admin/cache/metadata: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.cache.ForeignKeyValuesCache;
+import com.example.cache.ParentKeyCache;
+import com.example.cache.ResultCache;
+import com.example.cache.SqlTemplateCache;
+import com.example.cache.TableMetadataCache;
+import com.example.metrics.TimedJdbcTemplate;
+import com.example.security.JwtUtil;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics wiring: the application's {@link JdbcTemplate} times SQL per request (it replaces the
+ * auto-configured one and takes the same spring.jdbc.template.* settings), and the stats of
+ * every cache are published as dynamic.api.cache.* meters tagged by cache.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        JdbcProperties.Template template = properties.getTemplate();
+
+        JdbcTemplate jdbcTemplate = new TimedJdbcTemplate(dataSource);
+        jdbcTemplate.setIgnoreWarnings(template.isIgnoreWarnings());
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        jdbcTemplate.setSkipResultsProcessing(template.isSkipResultsProcessing());
+        jdbcTemplate.setSkipUndeclaredResults(template.isSkipUndeclaredResults());
+        jdbcTemplate.setResultsMapCaseInsensitive(template.isResultsMapCaseInsensitive());
+        return jdbcTemplate;
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(TableMetadataCache metadataCache, ParentKeyCache parentKeyCache,
+                                    ForeignKeyValuesCache fkValuesCache, ResultCache resultCache,
+                                    SqlTemplateCache sqlTemplates, JwtUtil jwtUtil) {
+
+        // same names as GET /admin/cache/stats
+        Map<String, Supplier<Map<String, Object>>> caches = new LinkedHashMap<>();
+        caches.put("metadata", metadataCache::stats);
+        caches.put("parentKeys", parentKeyCache::stats);
+        caches.put("fkValues", fkValuesCache::stats);
+        caches.put("results", resultCache::stats);
+        caches.put("sqlTemplates", sqlTemplates::stats);
+        caches.put("jwtClaims", jwtUtil::cacheStats);
+
+        return registry -> caches.forEach((name, stats) -> {
+            Gauge.builder("dynamic.api.cache.size", stats, s -> stat(s, "size"))
+                    .description("Entries in the cache").tag("cache", name).register(registry);
+            Gauge.builder("dynamic.api.cache.weight", stats, s -> stat(s, "weight"))
+                    .description("Bytes held by size-bounded caches").baseUnit("bytes").tag("cache", name).register(registry);
+            FunctionCounter.builder("dynamic.api.cache.hits", stats, s -> stat(s, "hits"))
+                    .tag("cache", name).register(registry);
+            FunctionCounter.builder("dynamic.api.cache.misses", stats, s -> stat(s, "misses"))
+                    .tag("cache", name).register(registry);
+            FunctionCounter.builder("dynamic.api.cache.evictions", stats, s -> stat(s, "evictions"))
+                    .tag("cache", name).register(registry);
+        });
+    }
+
+    // NaN for a stat the cache does not keep (a disabled cache, weight of an entry-bounded one)
+    private static double stat(Supplier<Map<String, Object>> stats, String key) {
+        return stats.get().get(key) instanceof Number value ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -31,6 +31,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()   // allow login API
                         .requestMatchers(SWAGGER_WHITELIST).permitAll() // ✅ allow Swagger
+                        .requestMatchers("/actuator/health").permitAll() // probes; metrics need a token
                         .requestMatchers("/dynamicApi/**").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,65 @@
+package com.example.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.example.metrics.SqlStatementLog;
+import com.example.metrics.TimedDataSource;
+
+/**
+ * Per-statement JDBC timing: every DataSource bean, and so JdbcTemplate, JPA and the catalog
+ * reads of DatabaseMetadataService, is wrapped in a {@link TimedDataSource} reporting to the
+ * {@link SqlStatementLog}. The wrapper sits right on the pool: it is applied before the
+ * {@link BoundedDataSource} of {@link ExecutionModeConfig}, so its acquire wait is the pool's
+ * and does not include waiting for a permit.
+ */
+@Configuration
+public class StatementTimingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementTimingConfig.class);
+
+    // static: needed by the post-processor, which is created before the rest of the configuration
+    @Bean
+    public static SqlStatementLog sqlStatementLog(Environment env) {
+        return new SqlStatementLog(
+                env.getProperty("jdbc.statement-timing.enabled", Boolean.class, true),
+                env.getProperty("jdbc.statement-timing.slow-threshold-ms", Long.class, 500L),
+                env.getProperty("jdbc.statement-timing.max-statements", Integer.class, 2000));
+    }
+
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(SqlStatementLog statementLog) {
+        return new TimingPostProcessor(statementLog);
+    }
+
+    // Ordered post-processors run before plain ones such as the BoundedDataSource wrapper
+    private static final class TimingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final SqlStatementLog statementLog;
+
+        private TimingPostProcessor(SqlStatementLog statementLog) {
+            this.statementLog = statementLog;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!statementLog.isEnabled() || !(bean instanceof DataSource dataSource) || bean instanceof TimedDataSource) {
+                return bean;
+            }
+            log.info("JDBC statements of '{}' are timed", beanName);
+            return new TimedDataSource(dataSource, statementLog);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
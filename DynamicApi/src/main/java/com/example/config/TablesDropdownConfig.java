@@ -0,0 +1,184 @@
+package com.example.config;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed view of tables-dropdown.properties: valid schemas, allowed / excluded tables per schema
+ * and the key / value columns used for dropdowns. The file is parsed once and parsed again only
+ * when its modification time changes (checked at most every {@code reload-check-seconds}).
+ */
+@Component
+public class TablesDropdownConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(TablesDropdownConfig.class);
+
+    private static final String VALID_SCHEMAS = "valid.schema.list";
+    private static final String ALLOWED_PREFIX = "allowed.tables.";
+    private static final String EXCLUDED_PREFIX = "exclude.tables.";
+
+    private final Resource resource;
+    private final long reloadCheckNanos;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastModified;
+    private volatile long nextCheckAt;
+
+    public TablesDropdownConfig(
+            ResourceLoader resourceLoader,
+            @Value("${dropdown.config.location:classpath:tables-dropdown.properties}") String location,
+            @Value("${dropdown.config.reload-check-seconds:10}") long reloadCheckSeconds) {
+
+        this.resource = resourceLoader.getResource(location);
+        this.reloadCheckNanos = reloadCheckSeconds > 0 ? reloadCheckSeconds * 1_000_000_000L : 0;
+        this.lastModified = lastModified();
+        this.snapshot = load();
+        this.nextCheckAt = System.nanoTime() + reloadCheckNanos;
+    }
+
+    public boolean isValidSchema(String schema) {
+        return schema != null && current().validSchemas.contains(schema);
+    }
+
+    /** Valid schemas in the order they are listed in the file. */
+    public List<String> getValidSchemas() {
+        return current().schemaList;
+    }
+
+    /** Allowed tables of the schema, empty when no whitelist is defined. */
+    public Set<String> getAllowedTables(String schema) {
+        return current().allowedTables.getOrDefault(schema, Collections.emptySet());
+    }
+
+    /** Excluded tables of the schema, empty when no blacklist is defined. */
+    public Set<String> getExcludedTables(String schema) {
+        return current().excludedTables.getOrDefault(schema, Collections.emptySet());
+    }
+
+    /** Configured dropdown mapping of schema.table, or null when none is configured. */
+    public DropdownMapping getDropdown(String schema, String table) {
+        return current().dropdowns.get(schema + "." + table);
+    }
+
+    /**
+     * Parses the file again regardless of its modification time.
+     */
+    public synchronized void reload() {
+        lastModified = lastModified();
+        snapshot = load();
+        nextCheckAt = System.nanoTime() + reloadCheckNanos;
+    }
+
+    private Snapshot current() {
+        if (reloadCheckNanos > 0 && System.nanoTime() - nextCheckAt >= 0) {
+            synchronized (this) {
+                if (System.nanoTime() - nextCheckAt >= 0) {
+                    nextCheckAt = System.nanoTime() + reloadCheckNanos;
+                    long modified = lastModified();
+                    if (modified != lastModified) {
+                        log.info("{} changed on disk, reloading", resource.getDescription());
+                        lastModified = modified;
+                        snapshot = load();
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    // 0 when the resource is not a plain file (e.g. inside the jar), so it is never reloaded
+    private long lastModified() {
+        try {
+            if (resource.isFile()) {
+                File file = resource.getFile();
+                return file.lastModified();
+            }
+        } catch (Exception ignored) {}
+        return 0;
+    }
+
+    private Snapshot load() {
+        Properties props = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            props.load(in);
+        } catch (Exception e) {
+            log.error("Could not read {} : {}", resource.getDescription(), e.getMessage());
+            // keep serving the previous configuration when a reload fails
+            return snapshot != null ? snapshot : new Snapshot(props);
+        }
+
+        Snapshot parsed = new Snapshot(props);
+        log.info("Loaded {} | schemas={} dropdowns={}",
+                resource.getDescription(), parsed.schemaList, parsed.dropdowns.size());
+        return parsed;
+    }
+
+    private static Set<String> splitToSet(String value) {
+        Set<String> result = new LinkedHashSet<>();
+        if (value == null) return result;
+        for (String part : value.split(",")) {
+            String trimmed = part.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+
+    /** Key and display column of a dropdown, as configured by {@code schema.table.key / .val}. */
+    public static final class DropdownMapping {
+        private final String keyColumn;
+        private final String valueColumn;
+
+        DropdownMapping(String keyColumn, String valueColumn) {
+            this.keyColumn = keyColumn;
+            this.valueColumn = valueColumn;
+        }
+
+        public String getKeyColumn() {
+            return keyColumn;
+        }
+
+        public String getValueColumn() {
+            return valueColumn;
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<String> schemaList;
+        private final Set<String> validSchemas;
+        private final Map<String, Set<String>> allowedTables = new HashMap<>();
+        private final Map<String, Set<String>> excludedTables = new HashMap<>();
+        private final Map<String, DropdownMapping> dropdowns = new HashMap<>();
+
+        private Snapshot(Properties props) {
+            Set<String> schemas = splitToSet(props.getProperty(VALID_SCHEMAS));
+            this.schemaList = List.copyOf(schemas);
+            this.validSchemas = Set.copyOf(schemas);
+
+            for (String name : props.stringPropertyNames()) {
+                String value = props.getProperty(name).trim();
+
+                if (name.startsWith(ALLOWED_PREFIX)) {
+                    allowedTables.put(name.substring(ALLOWED_PREFIX.length()), Set.copyOf(splitToSet(value)));
+                } else if (name.startsWith(EXCLUDED_PREFIX)) {
+                    excludedTables.put(name.substring(EXCLUDED_PREFIX.length()), Set.copyOf(splitToSet(value)));
+                } else if (name.endsWith(".key") && !value.isEmpty()) {
+                    String table = name.substring(0, name.length() - ".key".length());
+                    String val = props.getProperty(table + ".val", "").trim();
+                    if (!val.isEmpty()) {
+                        dropdowns.put(table, new DropdownMapping(value, val));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.cache.ForeignKeyValuesCache;
+import com.example.cache.ParentKeyCache;
+import com.example.cache.ResultCache;
+import com.example.cache.SqlTemplateCache;
+import com.example.cache.TableMetadataCache;
+import com.example.config.TablesDropdownConfig;
+import com.example.security.JwtUtil;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    @Autowired
+    private TableMetadataCache metadataCache;
+
+    @Autowired
+    private ParentKeyCache parentKeyCache;
+
+    @Autowired
+    private ForeignKeyValuesCache fkValuesCache;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private SqlTemplateCache sqlTemplates;
+
+    @Autowired
+    private TablesDropdownConfig dropdownConfig;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private static final Logger log = LoggerFactory.getLogger(CacheAdminController.class);
+
+    // ------------------- CACHE STATISTICS -------------------
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("metadata", metadataCache.stats());
+        stats.put("parentKeys", parentKeyCache.stats());
+        stats.put("fkValues", fkValuesCache.stats());
+        stats.put("results", resultCache.stats());
+        stats.put("sqlTemplates", sqlTemplates.stats());
+        stats.put("jwtClaims", jwtUtil.cacheStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // ------------------- INVALIDATE ALL METADATA -------------------
+    @DeleteMapping("/metadata")
+    public ResponseEntity<Map<String, Object>> invalidateAllMetadata() {
+        log.info("Admin request to invalidate all table metadata");
+        metadataCache.invalidateAll();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Metadata cache cleared"
+        ));
+    }
+
+    // ------------------- INVALIDATE ONE TABLE -------------------
+    @DeleteMapping("/metadata/{schema}/{table}")
+    public ResponseEntity<Map<String, Object>> invalidateMetadata(
+            @PathVariable String schema,
+            @PathVariable String table) {
+
+        log.info("Admin request to invalidate metadata for {}.{}", schema, table);
+        metadataCache.invalidate(schema, table);
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Metadata cache cleared for " + schema + "." + table
+        ));
+    }
+
+    // ------------------- INVALIDATE KNOWN PARENT KEYS -------------------
+    @DeleteMapping("/parent-keys")
+    public ResponseEntity<Map<String, Object>> invalidateParentKeys() {
+        log.info("Admin request to invalidate cached parent keys");
+        parentKeyCache.invalidateAll();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Parent key cache cleared"
+        ));
+    }
+
+    // ------------------- INVALIDATE FK DROPDOWN VALUES -------------------
+    @DeleteMapping("/fk-values")
+    public ResponseEntity<Map<String, Object>> invalidateFkValues() {
+        log.info("Admin request to invalidate cached fk-values");
+        fkValuesCache.invalidateAll();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "FK values cache cleared"
+        ));
+    }
+
+    // ------------------- INVALIDATE CACHED READ RESULTS -------------------
+    @DeleteMapping("/results")
+    public ResponseEntity<Map<String, Object>> invalidateResults() {
+        log.info("Admin request to invalidate cached read results");
+        resultCache.invalidateAll();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Result cache cleared"
+        ));
+    }
+
+    // ------------------- RELOAD tables-dropdown.properties -------------------
+    @PostMapping("/dropdown-config/reload")
+    public ResponseEntity<Map<String, Object>> reloadDropdownConfig() {
+        log.info("Admin request to reload dropdown configuration");
+        dropdownConfig.reload();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Dropdown configuration reloaded"
+        ));
+    }
+}
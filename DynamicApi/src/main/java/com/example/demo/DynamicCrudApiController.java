@@ -1035,28 +1035,64 @@
 
 package com.example.demo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Time;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import com.example.security.IPUtil;
+import com.example.security.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.NativeWebRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.cache.ForeignKeyValuesCache;
+import com.example.cache.ResultCache;
+import com.example.cache.SqlTemplateCache;
+import com.example.config.TablesDropdownConfig;
+import com.example.event.TableChangeEvent;
+import com.example.metrics.RequestPhases;
+import com.example.metrics.RequestPhases.Phase;
+import com.example.model.ColumnDescriptor;
+import com.example.model.ForeignKeyDescriptor;
+import com.example.model.PageCursor;
+import com.example.model.RowFormatter;
+import com.example.model.TableDescriptor;
+import com.example.service.ConditionalGetService;
+import com.example.service.ConditionalGetService.Family;
 import com.example.service.DatabaseMetadataService;
+import com.example.service.RowValidationService;
+import com.example.service.SearchQueryBuilder;
+import com.example.service.SqlIdentifiers;
+import com.example.service.UpsertQueryBuilder;
+import com.example.service.ValidationPipeline;
+import com.example.service.ValueConverter;
 
 @CrossOrigin
 @RestController
@@ -1069,8 +1105,64 @@ public class DynamicCrudApiController {
     @Autowired
     private DatabaseMetadataService metadataService;
 
+    @Autowired
+    private RowValidationService rowValidationService;
+
+    @Autowired
+    private ValidationPipeline validationPipeline;
+
+    @Autowired
+    private ForeignKeyValuesCache fkValuesCache;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private ConditionalGetService conditionalGet;
+
+    @Autowired
+    private SqlTemplateCache sqlTemplates;
+
+    @Autowired
+    private TablesDropdownConfig dropdownConfig;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dynamic.api.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    // maximum rows accepted by /batch, 0 disables the limit
+    @Value("${dynamic.api.batch.max-rows:10000}")
+    private int batchMaxRows;
+
+    @Value("${dynamic.api.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${dynamic.api.page.default-limit:100}")
+    private int defaultPageSize;
+
+    // page-size ceiling, 0 disables it
+    @Value("${dynamic.api.page.max-limit:1000}")
+    private int maxPageSize;
+
     private static final Logger log = LoggerFactory.getLogger(DynamicCrudApiController.class);
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    // bind parameters allowed in one statement by the PostgreSQL protocol
+    private static final int MAX_BIND_PARAMETERS = 32767;
+
+    // keyset condition of a table read: none, after the key, inside the trailing NULL block of
+    // the sort column, or after a (sort value, key) pair
+    private enum Keyset { NONE, KEY, NULL_BLOCK, SORT_AND_KEY }
+
 
     @GetMapping("/hello")
     public String hello() {
@@ -1095,9 +1187,7 @@ public class DynamicCrudApiController {
     // ------------------- Get all tables from valid schemas -------------------
     @GetMapping("/tables")
     public Map<String, List<String>> listTables() throws SQLException {
-        String schemas = getProperty("valid.schema.list");
-        List<String> schemaList = new ArrayList<>(Arrays.asList(schemas.split(",")));
-        return metadataService.getAllTables(schemaList);
+        return metadataService.getAllTables(dropdownConfig.getValidSchemas());
     }
 
     // ------------------- GET CHECK CONSTRAINT VALUES FOR DROPDOWN -------------------
@@ -1116,72 +1206,384 @@ public class DynamicCrudApiController {
     @GetMapping("/{schema}/{table}/columns")
     public List<Map<String, Object>> getTableColumns(
             @PathVariable String schema,
-            @PathVariable String table) throws SQLException {
+            @PathVariable String table,
+            NativeWebRequest webRequest) throws SQLException {
 
         log.info("Fetching columns from {}.{}", schema, table);
-        return metadataService.getColumns(schema, table);
+
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        if (conditionalGet.notModified(webRequest, Family.METADATA,
+                conditionalGet.metadataETag(schema, table, descriptor))) {
+            return null;
+        }
+        return descriptor.getColumnMaps();
     }
 
     // ------------------- GET ALL RECORDS -------------------
+    // Without limit/after the whole table is returned as a plain list (legacy behaviour).
+    // With limit and/or after a keyset page is returned: { data, limit, nextCursor }.
+    // With stream=true (JSON array) or Accept: application/x-ndjson the rows are streamed
+    // from a server-side cursor; paging parameters are ignored in that mode.
+    // Non-streamed responses of tables listed in result-cache.tables are served from the cache,
+    // and answered with 304 while the table's ETag matches If-None-Match.
     @GetMapping("/{schema}/{table}")
     public ResponseEntity<?> getAll(
             @PathVariable String schema,
-            @PathVariable String table) throws SQLException {
+            @PathVariable String table,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response,
+            NativeWebRequest webRequest) throws SQLException {
+
+        boolean streaming = stream || (accept != null && accept.contains(NDJSON_VALUE));
+        if (!streaming && conditionalGet.notModified(webRequest, Family.DATA, conditionalGet.dataETag(schema, table))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (!streaming && resultCache.covers(schema, table)) {
+            String shape = "all|" + limit + "|" + after + "|" + sort + "|" + fields;
+            return resultCache.get(schema, table, shape,
+                    () -> loadAll(schema, table, limit, after, sort, fields, false, accept, response));
+        }
+        return loadAll(schema, table, limit, after, sort, fields, stream, accept, response);
+    }
 
-        long start = System.currentTimeMillis();
-        log.info("Fetching all records from {}.{}", schema, table);
+    private ResponseEntity<?> loadAll(String schema, String table, Integer limit, String after, String sort,
+                                      String fields, boolean stream, String accept,
+                                      HttpServletResponse response) throws SQLException {
+
+        log.info("Fetching all records from {}.{} | limit={} sort={} fields={}", schema, table, limit, sort, fields);
 
         if (schema == null || schema.isBlank() || table == null || table.isBlank()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Schema or table name cannot be blank"));
         }
 
-        if (!getValidSchemaList(schema)) {
+        if (!dropdownConfig.isValidSchema(schema)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Enter valid schema"));
         }
 
         try {
-            List<Map<String, Object>> columns = metadataService.getColumns(schema, table);
-            String sql = String.format("SELECT * FROM %s.%s", schema, table);
+            TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+            if (descriptor.getColumnCount() == 0) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Table not found: " + schema + "." + table));
+            }
+            boolean ndjson = accept != null && accept.contains(NDJSON_VALUE);
+            boolean streaming = stream || ndjson;
+            boolean paged = !streaming && (limit != null || (after != null && !after.isBlank()));
+            String pk = descriptor.getPrimaryKey();
+
+            if (paged && pk == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Paging requires a primary key on " + schema + "." + table));
+            }
 
-            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql);
+            int pageSize = 0;
+            if (paged) {
+                pageSize = limit != null ? limit : defaultPageSize;
+                if (pageSize <= 0) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "limit must be greater than 0"));
+                }
+                if (maxPageSize > 0) {
+                    pageSize = Math.min(pageSize, maxPageSize);
+                }
+            }
 
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+            // ---------- PROJECTION ----------
+            List<String> selected = null;
+            if (fields != null && !fields.isBlank()) {
+                selected = new ArrayList<>();
+                List<String> unknown = new ArrayList<>();
+                for (String field : fields.split(",")) {
+                    ColumnDescriptor col = descriptor.getColumn(field.trim());
+                    if (col == null) {
+                        unknown.add(field.trim());
+                    } else if (!selected.contains(col.getName())) {
+                        selected.add(col.getName());
+                    }
+                }
+                if (!unknown.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Unknown column(s): " + String.join(", ", unknown)));
+                }
+            }
 
-            // formatting values
-            for (Map<String, Object> row : rows) {
+            // ---------- SORT ----------
+            ColumnDescriptor sortColumn = null;
+            boolean descending = false;
+            if (sort != null && !sort.isBlank()) {
+                String[] sortParts = sort.split(",");
+                sortColumn = descriptor.getColumn(sortParts[0].trim());
+                if (sortColumn == null) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Unknown sort column: " + sortParts[0].trim()));
+                }
+                descending = sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1].trim());
+                if (sortColumn.getName().equals(pk)) {
+                    sortColumn = null; // already the tie breaker
+                }
+            }
 
-                for (Map<String, Object> col : columns) {
-                    String colName = col.get("name").toString();
-                    String colType = col.get("type").toString().toLowerCase();
+            // PK and sort column are needed to build the next cursor
+            List<String> extraColumns = new ArrayList<>();
+            if (selected != null && paged) {
+                if (!selected.contains(pk)) extraColumns.add(pk);
+                if (sortColumn != null && !selected.contains(sortColumn.getName())
+                        && !extraColumns.contains(sortColumn.getName())) {
+                    extraColumns.add(sortColumn.getName());
+                }
+            }
 
-                    Object value = row.get(colName);
-                    if (value == null) continue;
+            List<String> selectList = selected == null ? null : new ArrayList<>(selected);
+            if (selectList != null) {
+                selectList.addAll(extraColumns);
+            }
+            List<Object> params = new ArrayList<>();
 
-                    // Normalize timestamps
-                    if (colType.contains("timestamp")) {
-                        if (value instanceof Timestamp ts)
-                            row.put(colName, ts.toLocalDateTime().format(formatter));
-                        else if (value instanceof java.time.OffsetDateTime odt)
-                            row.put(colName, odt.toLocalDateTime().format(formatter));
-                    }
+            // ---------- KEYSET CONDITION ----------
+            Keyset keyset = Keyset.NONE;
+            if (paged && after != null && !after.isBlank()) {
+                PageCursor cursor;
+                try {
+                    cursor = PageCursor.decode(after);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Invalid cursor"));
+                }
 
-                    // Uppercase CODE fields
-                    if (colName.toLowerCase().contains("code")) {
-                        row.put(colName, value.toString().toUpperCase());
-                    }
+                String cursorSort = sortColumn == null ? null : sortColumn.getName();
+                if (!Objects.equals(cursorSort, cursor.getSortColumn())) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Cursor does not match the requested sort"));
+                }
+
+                Object keyValue = ValueConverter.toBindValue(descriptor.getColumn(pk), cursor.getKeyValue());
+
+                if (sortColumn == null) {
+                    keyset = Keyset.KEY;
+                } else if (cursor.getSortValue() == null) {
+                    keyset = Keyset.NULL_BLOCK;
+                } else {
+                    keyset = Keyset.SORT_AND_KEY;
+                    params.add(ValueConverter.toBindValue(sortColumn, cursor.getSortValue()));
+                }
+                params.add(keyValue);
+            }
+
+            if (paged) {
+                params.add(pageSize + 1);
+            }
+
+            // ---------- SQL (one text per shape) ----------
+            ColumnDescriptor orderColumn = sortColumn;
+            boolean desc = descending;
+            boolean ordered = paged || sort != null && !sort.isBlank();
+            Keyset condition = keyset;
+            String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "select",
+                            selectList == null ? "*" : selectList, orderColumn == null ? "" : orderColumn.getName(),
+                            desc ? "desc" : "asc", ordered, condition, paged),
+                    () -> selectSql(descriptor, selectList, orderColumn, desc, ordered, condition, paged));
+
+            if (streaming) {
+                streamRows(descriptor, sql, params.toArray(), ndjson, response);
+                return null;
+            }
+
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, params.toArray());
+
+            String nextCursor = null;
+            if (paged && rows.size() > pageSize) {
+                rows = new ArrayList<>(rows.subList(0, pageSize));
+                Map<String, Object> last = rows.get(rows.size() - 1);
+                nextCursor = new PageCursor(
+                        sortColumn == null ? null : sortColumn.getName(),
+                        sortColumn == null ? null : Objects.toString(last.get(sortColumn.getName()), null),
+                        Objects.toString(last.get(pk), null)).encode();
+            }
+
+            // formatting values (after the cursor, which needs the raw values)
+            RowFormatter formatter = descriptor.getRowFormatter();
+            for (Map<String, Object> row : rows) {
+                formatter.formatInPlace(row);
+
+                for (String extra : extraColumns) {
+                    row.remove(extra);
                 }
             }
 
-            return ResponseEntity.ok(rows);
+            if (!paged) {
+                return ResponseEntity.ok(rows);
+            }
+
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("data", rows);
+            page.put("limit", pageSize);
+            page.put("nextCursor", nextCursor);
+            return ResponseEntity.ok(page);
 
         } catch (Exception ex) {
+            if (response.isCommitted()) {
+                // part of a streamed body is out: fail the request so the connection is aborted,
+                // an error body now would only be appended to the rows
+                throw ex instanceof RuntimeException runtime ? runtime
+                        : new IllegalStateException("Streaming " + schema + "." + table + " failed", ex);
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch data", "details", ex.getMessage()));
         }
     }
 
+    // SELECT of a table read from catalog names only; the keyset values and the LIMIT are binds
+    private static String selectSql(TableDescriptor descriptor, List<String> selectList, ColumnDescriptor sortColumn,
+                                    boolean descending, boolean ordered, Keyset keyset, boolean paged) {
+
+        String pk = descriptor.getPrimaryKey() == null ? null : SqlIdentifiers.quote(descriptor.getPrimaryKey());
+        String sort = sortColumn == null ? null : SqlIdentifiers.quote(sortColumn.getName());
+        String direction = descending ? "DESC" : "ASC";
+        String comparator = descending ? "<" : ">";
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (selectList == null) {
+            sql.append("*");
+        } else {
+            sql.append(selectList.stream().map(SqlIdentifiers::quote).collect(Collectors.joining(", ")));
+        }
+        sql.append(" FROM ").append(SqlIdentifiers.qualified(descriptor));
+
+        switch (keyset) {
+            case KEY -> sql.append(" WHERE ").append(pk).append(" ").append(comparator).append(" ?");
+            // already inside the trailing NULL block
+            case NULL_BLOCK -> sql.append(" WHERE (").append(sort).append(" IS NULL AND ")
+                    .append(pk).append(" ").append(comparator).append(" ?)");
+            case SORT_AND_KEY -> {
+                sql.append(" WHERE ((").append(sort).append(", ").append(pk).append(") ")
+                        .append(comparator).append(" (?, ?)");
+                if (sortColumn.isNullable()) {
+                    sql.append(" OR ").append(sort).append(" IS NULL");
+                }
+                sql.append(")");
+            }
+            case NONE -> { }
+        }
+
+        if (sortColumn != null) {
+            sql.append(" ORDER BY ").append(sort).append(" ").append(direction).append(" NULLS LAST");
+            if (pk != null) {
+                sql.append(", ").append(pk).append(" ").append(direction);
+            }
+        } else if (ordered) {
+            sql.append(" ORDER BY ").append(pk).append(" ").append(direction);
+        }
+
+        if (paged) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    // Writes rows to the response as they come off the ResultSet, so memory stays flat per request.
+    // Any failure rolls the cursor transaction back. A failure before the first row leaves the
+    // response untouched; after it, what was written is committed and the exception rethrown, so
+    // the client sees an aborted body rather than one that looks complete.
+    private void streamRows(TableDescriptor descriptor, String sql, Object[] params,
+                            boolean ndjson, HttpServletResponse response) {
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) conn -> {
+            long start = System.currentTimeMillis();
+            long count = 0;
+            boolean started = false;
+            RowFormatter formatter = descriptor.getRowFormatter();
+
+            // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(streamFetchSize);
+                new ArgumentPreparedStatementSetter(params).setValues(ps);
+
+                try (ResultSet rs = ps.executeQuery()) {
+
+                    response.setStatus(HttpStatus.OK.value());
+                    response.setContentType(ndjson ? NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+                    response.setCharacterEncoding("UTF-8");
+                    started = true;
+
+                    // closing on a failure must neither finish the array nor end the response
+                    JsonGenerator gen = objectMapper.createGenerator(response.getOutputStream())
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+                    ResultSetMetaData md = rs.getMetaData();
+                    int columnCount = md.getColumnCount();
+                    String[] names = new String[columnCount];
+                    List<UnaryOperator<Object>> transformers = new ArrayList<>(columnCount);
+                    for (int i = 0; i < columnCount; i++) {
+                        names[i] = md.getColumnLabel(i + 1);
+                        transformers.add(formatter.transformerFor(names[i]));
+                    }
+
+                    if (!ndjson) gen.writeStartArray();
+
+                    while (rs.next()) {
+                        gen.writeStartObject();
+                        for (int i = 0; i < columnCount; i++) {
+                            Object value = rs.getObject(i + 1);
+                            if (value != null && transformers.get(i) != null) {
+                                value = transformers.get(i).apply(value);
+                            }
+                            gen.writeFieldName(names[i]);
+                            gen.writeObject(value);
+                        }
+                        gen.writeEndObject();
+                        if (ndjson) gen.writeRaw('\n');
+                        count++;
+                    }
+
+                    if (!ndjson) gen.writeEndArray();
+                    gen.flush();
+                }
+
+                conn.commit();
+            } catch (IOException e) {
+                abortStream(conn, e, started, response);
+                throw new UncheckedIOException("Streaming " + descriptor.getQualifiedName() + " failed", e);
+            } catch (SQLException | RuntimeException e) {
+                abortStream(conn, e, started, response);
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+            RequestPhases.rows(count);
+            log.info("Streamed {} rows from {} in {} ms", count, descriptor.getQualifiedName(),
+                    (System.currentTimeMillis() - start));
+            return null;
+        });
+    }
+
+    private static void abortStream(Connection conn, Exception failure, boolean started,
+                                    HttpServletResponse response) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+        if (started) {
+            try {
+                response.flushBuffer(); // commits the partial body, the container then aborts it
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
     // ------------------- INSERT NEW RECORD -------------------
     @PostMapping("/{schema}/{table}")
     public ResponseEntity<?> insertRow(
@@ -1190,22 +1592,18 @@ public class DynamicCrudApiController {
             @RequestBody Map<String, Object> rowData,
             HttpServletRequest request) throws SQLException {
 
-        long start = System.currentTimeMillis();
-        log.info("Insert request {}.{} | Payload={}", schema, table, rowData);
+        if (log.isDebugEnabled()) {
+            log.debug("Insert request {}.{} | Payload={}", schema, table, rowData);
+        }
 
-        List<Map<String, Object>> columns = metadataService.getColumns(schema, table);
-        List<String> pkColumns = metadataService.getPrimaryKeys(schema, table);
-        List<Map<String, Object>> foreignKeys = metadataService.getForeignKeys(schema, table);
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
 
 
         // ---------- FOREIGN KEY VALIDATION ----------
-        for (Map<String, Object> fk : foreignKeys) {
-
-            String fkColumn = fk.get("fkColumn").toString();
-            String pkTable = fk.get("pkTable").toString();
-            String pkTableSchema = fk.get("pkTableSchema").toString();
-            String pkColumn = fk.get("pkColumn").toString();
+        Map<ForeignKeyDescriptor, String> fkValues = new LinkedHashMap<>();
+        for (ForeignKeyDescriptor fk : descriptor.getForeignKeys()) {
 
+            String fkColumn = fk.getFkColumn();
             Object fkValue = rowData.get(fkColumn);
 
             if (fkValue == null || fkValue.toString().trim().isEmpty()) {
@@ -1226,131 +1624,742 @@ public class DynamicCrudApiController {
                 ));
             }
 
-            String sqlFkCheck = "SELECT COUNT(*) FROM " + pkTableSchema + "." + pkTable +
-                    " WHERE " + pkColumn + " = ?";
-
-            int countFk = jdbcTemplate.queryForObject(sqlFkCheck, Integer.class, fkValue.toString());
-
-            if (countFk == 0) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                        "status", "error",
-                        "timestamp", LocalDateTime.now().toString(),
-                        "message", fkColumn + " does not exist: " + fkValue
-                ));
-            }
+            fkValues.put(fk, fkValue.toString());
         }
 
         // ---------- UNIQUE CODE VALIDATION ----------
-        for (Map<String, Object> col : columns) {
-
-            String colName = col.get("name").toString().toLowerCase();
-            String colType = col.get("type").toString().toLowerCase();
+        Map<String, String> codes = new LinkedHashMap<>();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
 
-            if (!colName.endsWith("_code")) continue;
+            if (!col.isUniqueCode() || !col.getType().isTextual()) continue;
 
-            if (!(colType.contains("char") || colType.contains("text") || colType.contains("varchar")))
-                continue;
+            String colName = col.getLowerName();
 
             if (!rowData.containsKey(colName)) continue;
 
             String value = rowData.get(colName).toString().trim().toUpperCase();
             if (value.isEmpty()) continue;
 
-            if (isDuplicateCodeInsert(schema, table, colName, value)) {
+            codes.put(colName, value);
+        }
 
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
-                        "status", "error",
-                        "timestamp", LocalDateTime.now().toString(),
-                        "message", colName + " already exists: " + value
-                ));
-            }
+        // all parents, then all code columns, each checked in one round trip
+        ResponseEntity<?> invalid = checkParentsAndCodes("insert into " + schema + "." + table,
+                descriptor, fkValues, codes, null);
+        if (invalid != null) {
+            return invalid;
         }
 
 
         // ---------- SYSTEM FIELDS ----------
-        rowData.put("created_by", "System");
+        applyCreateSystemFields(rowData, request);
+
+        List<String> insertCols = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        collectInsertValues(descriptor, new HashMap<>(rowData), insertCols, values);
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "insert-returning", insertCols),
+                () -> insertSql(descriptor, insertCols) + " RETURNING *");
+
+        try {
+            // the stored row, with defaults and generated key, formatted like getById
+            List<Map<String, Object>> stored = jdbcTemplate.query(sql, descriptor.getRowFormatter().newRowMapper(), values.toArray());
+            eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.INSERT));
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "message", "Row inserted successfully",
+                    "data", stored.get(0)
+            ));
+
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "error",
+                    "timestamp", LocalDateTime.now().toString(),
+                    "message", "Insert failed: " + ex.getMessage()
+            ));
+        }
+    }
+
+
+
+    // Foreign key and code checks of one row. They are independent, so with the validation
+    // pipeline enabled they run concurrently (parent metadata loaded up front); a missing
+    // parent still takes precedence over a duplicate code, as in the sequential order.
+    private ResponseEntity<?> checkParentsAndCodes(String stage, TableDescriptor descriptor,
+                                                   Map<ForeignKeyDescriptor, String> fkValues,
+                                                   Map<String, String> codes, String excludeId) throws SQLException {
+        List<Callable<ResponseEntity<?>>> checks = new ArrayList<>(2);
+        if (!fkValues.isEmpty()) {
+            metadataService.preloadParentDescriptors(descriptor);
+            checks.add(() -> {
+                List<ForeignKeyDescriptor> missing = rowValidationService.findMissingParents(fkValues);
+                return missing.isEmpty() ? null : parentsNotFound(missing, fkValues);
+            });
+        }
+        if (!codes.isEmpty()) {
+            checks.add(() -> {
+                List<String> duplicates = rowValidationService.findDuplicateCodes(descriptor, codes, excludeId);
+                return duplicates.isEmpty() ? null : codesAlreadyExist(duplicates, codes);
+            });
+        }
+        return RequestPhases.time(Phase.VALIDATION, () -> validationPipeline.firstFailure(stage, checks));
+    }
+
+    // 404 naming every foreign key whose parent row does not exist
+    private ResponseEntity<Map<String, Object>> parentsNotFound(List<ForeignKeyDescriptor> missing,
+                                                                Map<ForeignKeyDescriptor, String> fkValues) {
+        List<String> messages = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        for (ForeignKeyDescriptor fk : missing) {
+            fields.add(fk.getFkColumn());
+            messages.add(fk.getFkColumn() + " does not exist: " + fkValues.get(fk));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "status", "error",
+                "timestamp", LocalDateTime.now().toString(),
+                "message", String.join("; ", messages),
+                "fields", fields
+        ));
+    }
+
+    // 409 naming every code column whose value is already used
+    private ResponseEntity<Map<String, Object>> codesAlreadyExist(List<String> duplicates, Map<String, String> codes) {
+        List<String> messages = new ArrayList<>();
+        for (String colName : duplicates) {
+            messages.add(colName + " already exists: " + codes.get(colName));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "status", "error",
+                "timestamp", LocalDateTime.now().toString(),
+                "message", String.join("; ", messages),
+                "fields", duplicates
+        ));
+    }
+
+    private void applyCreateSystemFields(Map<String, Object> rowData, HttpServletRequest request) {
+        rowData.put("created_by", JwtUtil.getUsername(request, "System"));
         rowData.put("created_date", LocalDateTime.now());
         rowData.put("created_uri", request.getRequestURL().toString());
         rowData.put("created_ip_addr", IPUtil.getClientIp(request));
         rowData.putIfAbsent("status", "ACTIVE");
+    }
 
-        Map<String, Object> finalData = new HashMap<>(rowData);
+    private void applyModifySystemFields(Map<String, Object> rowData, HttpServletRequest request) {
+        rowData.put("modified_by", JwtUtil.getUsername(request, "System"));
+        rowData.put("modified_date", LocalDateTime.now());
+        rowData.put("modified_ip_addr", IPUtil.getClientIp(request));
+        rowData.put("modified_uri", request.getRequestURL().toString());
+    }
 
-        List<String> insertCols = new ArrayList<>();
-        List<Object> values = new ArrayList<>();
+    // non-PK columns with a non-blank value, in table column order
+    private static String insertSql(TableDescriptor descriptor, List<String> insertCols) {
+        return "INSERT INTO " + SqlIdentifiers.qualified(descriptor) + " (" + quotedList(insertCols) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(insertCols.size(), "?")) + ")";
+    }
 
-        for (Map<String, Object> col : columns) {
+    private static String quotedList(List<String> columns) {
+        return columns.stream().map(SqlIdentifiers::quote).collect(Collectors.joining(", "));
+    }
 
-            String colName = col.get("name").toString();
-            String type = col.get("type").toString();
+    private void collectInsertValues(TableDescriptor descriptor, Map<String, Object> finalData,
+                                     List<String> insertCols, List<Object> values) {
+        for (ColumnDescriptor col : descriptor.getColumns()) {
 
-            if (pkColumns.contains(colName)) continue;
+            if (col.isPrimaryKey()) continue;
 
-            if (finalData.containsKey(colName)) {
-                Object val = finalData.get(colName);
+            String colName = col.getName();
+            Object val = finalData.get(colName);
 
-                if (val != null && !val.toString().trim().isEmpty()) {
-                    insertCols.add(colName);
-                    values.add(convertValue(val, type, colName));
-                }
+            if (val != null && !val.toString().trim().isEmpty()) {
+                insertCols.add(colName);
+                values.add(ValueConverter.convert(val, col));
             }
         }
+    }
 
-        String sql = "INSERT INTO " + schema + "." + table +
-                " (" + String.join(", ", insertCols) + ") VALUES (" +
-                String.join(", ", Collections.nCopies(insertCols.size(), "?")) + ")";
+    // ------------------- BULK INSERT -------------------
+    // Validates the whole batch with set-based queries, then inserts the valid rows with
+    // JDBC batching in chunks. Each chunk is one transaction. Returns a result per row.
+    @PostMapping("/{schema}/{table}/batch")
+    public ResponseEntity<?> insertBatch(
+            @PathVariable String schema,
+            @PathVariable String table,
+            @RequestBody List<Map<String, Object>> rows,
+            HttpServletRequest request) throws SQLException {
 
-        try {
-            jdbcTemplate.update(sql, values.toArray());
+        long start = System.currentTimeMillis();
+        log.info("Batch insert request {}.{} | Rows={}", schema, table, rows == null ? 0 : rows.size());
 
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", "Row inserted successfully"
+        if (rows == null || rows.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "status", "error",
+                    "timestamp", LocalDateTime.now().toString(),
+                    "message", "Request body must be a non-empty array of rows"
             ));
+        }
 
-        } catch (Exception ex) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+        if (batchMaxRows > 0 && rows.size() > batchMaxRows) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
                     "status", "error",
                     "timestamp", LocalDateTime.now().toString(),
-                    "message", "Insert failed: " + ex.getMessage()
+                    "message", "Batch exceeds the maximum of " + batchMaxRows + " rows"
             ));
         }
+
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        String[] errors = new String[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == null) {
+                errors[i] = "Row is empty";
+            }
+        }
+
+        // ---------- FOREIGN KEY VALIDATION ----------
+        checkForeignKeys(descriptor, rows, errors, true);
+
+        // ---------- UNIQUE CODE VALIDATION (within batch + one query against table) ----------
+        List<ColumnDescriptor> codeColumns = new ArrayList<>();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
+            if (col.isUniqueCode() && col.getType().isTextual()) codeColumns.add(col);
+        }
+
+        if (!codeColumns.isEmpty()) {
+            Map<String, Set<String>> candidates = new LinkedHashMap<>();
+            for (ColumnDescriptor col : codeColumns) {
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (errors[i] != null) continue;
+                    Object raw = rows.get(i).get(col.getLowerName());
+                    if (raw == null) continue;
+
+                    String value = raw.toString().trim().toUpperCase();
+                    if (value.isEmpty()) continue;
+
+                    if (!seen.add(value)) {
+                        errors[i] = col.getLowerName() + " is duplicated in batch: " + value;
+                    }
+                }
+                candidates.put(col.getLowerName(), seen);
+            }
+
+            Map<String, Set<String>> existingCodes = RequestPhases.time(Phase.VALIDATION,
+                    () -> rowValidationService.findExistingCodes(descriptor, candidates));
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) continue;
+                for (ColumnDescriptor col : codeColumns) {
+                    Object raw = rows.get(i).get(col.getLowerName());
+                    if (raw == null) continue;
+
+                    String value = raw.toString().trim().toUpperCase();
+                    if (existingCodes.getOrDefault(col.getLowerName(), Collections.emptySet()).contains(value)) {
+                        errors[i] = col.getLowerName() + " already exists: " + value;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // ---------- BUILD STATEMENTS, GROUPED BY COLUMN SET ----------
+        Map<List<String>, List<Integer>> rowsByShape = new LinkedHashMap<>();
+        Map<Integer, Object[]> argsByRow = new HashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) continue;
+
+            Map<String, Object> rowData = rows.get(i);
+            applyCreateSystemFields(rowData, request);
+
+            List<String> insertCols = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            try {
+                collectInsertValues(descriptor, rowData, insertCols, values);
+            } catch (Exception e) {
+                errors[i] = "Invalid value: " + e.getMessage();
+                continue;
+            }
+
+            if (insertCols.isEmpty()) {
+                errors[i] = "No valid columns found";
+                continue;
+            }
+
+            rowsByShape.computeIfAbsent(insertCols, k -> new ArrayList<>()).add(i);
+            argsByRow.put(i, values.toArray());
+        }
+
+        // ---------- WRITE IN CHUNKS ----------
+        int inserted = 0;
+        for (Map.Entry<List<String>, List<Integer>> shape : rowsByShape.entrySet()) {
+
+            List<String> insertCols = shape.getKey();
+            String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "insert", insertCols),
+                    () -> insertSql(descriptor, insertCols));
+
+            List<Integer> indexes = shape.getValue();
+            for (int from = 0; from < indexes.size(); from += batchChunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + batchChunkSize, indexes.size()));
+                List<Object[]> batchArgs = new ArrayList<>(chunk.size());
+                for (Integer idx : chunk) {
+                    batchArgs.add(argsByRow.get(idx));
+                }
+
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batchArgs));
+                    inserted += chunk.size();
+                } catch (Exception ex) {
+                    log.error("Batch chunk failed for {}.{} : {}", schema, table, ex.getMessage());
+                    // the chunk was rolled back as a whole: retry its rows one by one so only
+                    // the offending rows are reported
+                    for (Integer idx : chunk) {
+                        try {
+                            jdbcTemplate.update(sql, argsByRow.get(idx));
+                            inserted++;
+                        } catch (Exception rowEx) {
+                            errors[idx] = "Insert failed: " + rowEx.getMessage();
+                        }
+                    }
+                }
+            }
+        }
+
+        // ---------- RESULT PER ROW ----------
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i);
+            result.put("status", errors[i] == null ? "success" : "error");
+            if (errors[i] != null) result.put("message", errors[i]);
+            results.add(result);
+        }
+
+        if (inserted > 0) {
+            eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.INSERT));
+        }
+
+        int failed = rows.size() - inserted;
+        log.info("Batch insert {}.{} | inserted={} failed={} | {} ms",
+                schema, table, inserted, failed, (System.currentTimeMillis() - start));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", failed == 0 ? "success" : inserted == 0 ? "error" : "partial");
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("total", rows.size());
+        body.put("inserted", inserted);
+        body.put("failed", failed);
+        body.put("results", results);
+        return ResponseEntity.ok(body);
+    }
+
+    // Foreign keys of a batch: presence (when required) and GUID format per row, then existence
+    // with one query per parent table. Rows that already have an error are skipped.
+    private void checkForeignKeys(TableDescriptor descriptor, List<Map<String, Object>> rows,
+                                  String[] errors, boolean required) throws SQLException {
+
+        Map<String, List<ForeignKeyDescriptor>> fksByParent = new LinkedHashMap<>();
+        for (ForeignKeyDescriptor fk : descriptor.getForeignKeys()) {
+            fksByParent.computeIfAbsent(fk.getQualifiedPkTable() + "." + fk.getPkColumn(), k -> new ArrayList<>()).add(fk);
+        }
+
+        // ---------- PRESENCE / FORMAT ----------
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) continue;
+
+            Map<String, Object> rowData = rows.get(i);
+            for (ForeignKeyDescriptor fk : descriptor.getForeignKeys()) {
+                if (!required && !rowData.containsKey(fk.getFkColumn())) continue;
+
+                Object fkValue = rowData.get(fk.getFkColumn());
+
+                if (fkValue == null || fkValue.toString().trim().isEmpty()) {
+                    errors[i] = fk.getFkColumn() + " (foreign key) is missing";
+                    break;
+                }
+
+                try {
+                    UUID.fromString(fkValue.toString());
+                } catch (Exception e) {
+                    errors[i] = fk.getFkColumn() + " (foreign key) format invalid: " + fkValue;
+                    break;
+                }
+            }
+        }
+
+        // ---------- EXISTENCE (one query per parent table) ----------
+        for (List<ForeignKeyDescriptor> group : fksByParent.values()) {
+            Set<String> candidates = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) continue;
+                for (ForeignKeyDescriptor fk : group) {
+                    Object fkValue = rows.get(i).get(fk.getFkColumn());
+                    if (fkValue != null) candidates.add(fkValue.toString());
+                }
+            }
+            if (candidates.isEmpty()) continue;
+
+            Set<String> existing = RequestPhases.time(Phase.VALIDATION,
+                    () -> rowValidationService.findExistingParents(group.get(0), candidates));
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) continue;
+                for (ForeignKeyDescriptor fk : group) {
+                    Object fkValue = rows.get(i).get(fk.getFkColumn());
+                    if (fkValue != null && !existing.contains(fkValue.toString())) {
+                        errors[i] = fk.getFkColumn() + " does not exist: " + fkValue;
+                        break;
+                    }
+                }
+            }
+        }
     }
 
+    // Code columns other than the conflict target, as insertRow / updateRow check them: a value
+    // sent twice in the batch, or already held by a row other than the one the row's key names
+    // (the row the upsert updates), is an error. Rows that already have an error are skipped.
+    private void checkUpsertCodes(TableDescriptor descriptor, ColumnDescriptor target,
+                                  List<Map<String, Object>> rows, String[] errors) {
 
+        List<ColumnDescriptor> codeColumns = new ArrayList<>();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
+            if (col.isUniqueCode() && col.getType().isTextual() && !col.getName().equals(target.getName())) {
+                codeColumns.add(col);
+            }
+        }
+        if (codeColumns.isEmpty()) return;
+
+        Map<String, Set<String>> candidates = new LinkedHashMap<>();
+        for (ColumnDescriptor col : codeColumns) {
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) continue;
+                String value = codeValue(rows.get(i), col);
+                if (value == null) continue;
+
+                if (!seen.add(value)) {
+                    errors[i] = col.getLowerName() + " is duplicated in batch: " + value;
+                }
+            }
+            candidates.put(col.getLowerName(), seen);
+        }
+
+        Map<String, Map<String, Set<String>>> owners = RequestPhases.time(Phase.VALIDATION,
+                () -> rowValidationService.findCodeOwners(descriptor, candidates, target.getName()));
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) continue;
+
+            String key = upsertKey(rows.get(i), target);
+            for (ColumnDescriptor col : codeColumns) {
+                String value = codeValue(rows.get(i), col);
+                if (value == null) continue;
+
+                Set<String> holders = owners.getOrDefault(col.getLowerName(), Collections.emptyMap())
+                        .getOrDefault(value, Collections.emptySet());
+                if (holders.stream().anyMatch(holder -> !holder.equalsIgnoreCase(key))) {
+                    errors[i] = col.getLowerName() + " already exists: " + value;
+                    break;
+                }
+            }
+        }
+    }
+
+    // upper-cased code value sent for the column, null when absent or blank
+    private static String codeValue(Map<String, Object> rowData, ColumnDescriptor col) {
+        Object raw = rowData.get(col.getLowerName());
+        String value = raw == null ? "" : raw.toString().trim().toUpperCase();
+        return value.isEmpty() ? null : value;
+    }
+
+    // the row's conflict target value as the database prints it, null when it is only inserted
+    private static String upsertKey(Map<String, Object> rowData, ColumnDescriptor target) {
+        Object raw = rowData.get(target.getName());
+        String value = raw == null ? "" : raw.toString().trim();
+        if (value.isEmpty()) return null;
+        if (!target.isPrimaryKey()) return value.toUpperCase();
+        try {
+            return String.valueOf(ValueConverter.toBindValue(target, value));
+        } catch (IllegalArgumentException e) {
+            return value; // rejected when the row's values are converted
+        }
+    }
+
+    // ------------------- UPSERT -------------------
+    // Inserts or updates by primary key, or by the unique *_code column named in ?key=, with
+    // INSERT ... ON CONFLICT ... DO UPDATE ... RETURNING * (one statement per chunk of rows).
+    // The body is one row or an array of rows; stored rows are returned formatted like getById.
+    // Only the columns sent are updated on conflict; created_* is kept and modified_* is set.
+    @PutMapping("/{schema}/{table}")
+    public ResponseEntity<?> upsert(
+            @PathVariable String schema,
+            @PathVariable String table,
+            @RequestParam(value = "key", required = false) String key,
+            @RequestBody Object body,
+            HttpServletRequest request) throws SQLException {
+
+        long start = System.currentTimeMillis();
+
+        boolean single = body instanceof Map;
+        List<?> items = single ? List.of(body) : body instanceof List<?> list ? list : Collections.emptyList();
+        log.info("Upsert request {}.{} | key={} | Rows={}", schema, table, key, items.size());
+
+        if (items.isEmpty()) {
+            return upsertFailed(HttpStatus.BAD_REQUEST, "Request body must be a row or a non-empty array of rows");
+        }
+
+        if (batchMaxRows > 0 && items.size() > batchMaxRows) {
+            return upsertFailed(HttpStatus.PAYLOAD_TOO_LARGE, "Batch exceeds the maximum of " + batchMaxRows + " rows");
+        }
+
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+
+        // ---------- CONFLICT TARGET ----------
+        ColumnDescriptor target;
+        if (key == null || key.isBlank()) {
+            target = descriptor.getColumn(descriptor.getPrimaryKey());
+            if (target == null) {
+                return upsertFailed(HttpStatus.BAD_REQUEST, "Primary key not found");
+            }
+        } else {
+            target = descriptor.getColumn(key.trim());
+            if (target == null || !(target.isPrimaryKey() || target.isUniqueCode())) {
+                return upsertFailed(HttpStatus.BAD_REQUEST, key + " is not the primary key or a *_code column of " + schema + "." + table);
+            }
+        }
+        String targetName = target.getName();
+
+        List<Map<String, Object>> rows = new ArrayList<>(items.size());
+        String[] errors = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            if (item instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> rowData = (Map<String, Object>) item;
+                rows.add(rowData);
+            } else {
+                rows.add(null);
+                errors[i] = "Row must be a JSON object";
+            }
+        }
+
+        // ---------- KEY VALUES ----------
+        // one statement cannot affect the same row twice, so a key may appear only once;
+        // without a primary key value the row is simply inserted
+        Set<String> seenKeys = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) continue;
+
+            Object raw = rows.get(i).get(targetName);
+            String value = raw == null ? "" : raw.toString().trim().toUpperCase();
+            if (value.isEmpty()) {
+                if (!target.isPrimaryKey()) errors[i] = targetName + " is required for upsert";
+                continue;
+            }
+            if (!seenKeys.add(value)) {
+                errors[i] = targetName + " is duplicated in batch: " + value;
+            }
+        }
+        if (single && errors[0] != null) {
+            return upsertFailed(HttpStatus.BAD_REQUEST, errors[0]);
+        }
+
+        // ---------- FOREIGN KEY VALIDATION (only the keys sent, as for update) ----------
+        checkForeignKeys(descriptor, rows, errors, false);
+        if (single && errors[0] != null) {
+            return upsertFailed(HttpStatus.NOT_FOUND, errors[0]);
+        }
+
+        // ---------- UNIQUE CODE VALIDATION (within batch + one query against table) ----------
+        checkUpsertCodes(descriptor, target, rows, errors);
+        if (single && errors[0] != null) {
+            return upsertFailed(HttpStatus.CONFLICT, errors[0]);
+        }
+
+        // ---------- SYSTEM FIELDS SET ON CONFLICT ----------
+        Map<String, Object> modifiedFields = new LinkedHashMap<>();
+        applyModifySystemFields(modifiedFields, request);
+
+        List<String> modifiedCols = new ArrayList<>();
+        List<Object> modifiedValues = new ArrayList<>();
+        collectInsertValues(descriptor, modifiedFields, modifiedCols, modifiedValues);
+
+        // ---------- BUILD ROWS, GROUPED BY INSERTED / UPDATED COLUMNS ----------
+        Map<List<List<String>>, List<Integer>> rowsByShape = new LinkedHashMap<>();
+        Map<Integer, List<Object>> argsByRow = new HashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) continue;
+
+            Map<String, Object> rowData = rows.get(i);
+            Set<String> sent = new HashSet<>(rowData.keySet());
+            applyCreateSystemFields(rowData, request);
+
+            List<String> insertCols = new ArrayList<>();
+            List<String> updateCols = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            try {
+                for (ColumnDescriptor col : descriptor.getColumns()) {
+                    String colName = col.getName();
+                    Object val = rowData.get(colName);
+                    if (val == null || val.toString().trim().isEmpty()) continue;
+
+                    insertCols.add(colName);
+                    values.add(ValueConverter.convert(val, col));
+
+                    if (sent.contains(colName) && !col.isPrimaryKey() && !colName.equals(targetName)
+                            && !colName.startsWith("created_") && !modifiedFields.containsKey(colName)) {
+                        updateCols.add(colName);
+                    }
+                }
+            } catch (Exception e) {
+                errors[i] = "Invalid value: " + e.getMessage();
+                continue;
+            }
+
+            if (insertCols.isEmpty()) {
+                errors[i] = "No valid columns found";
+                continue;
+            }
+
+            rowsByShape.computeIfAbsent(List.of(insertCols, updateCols), k -> new ArrayList<>()).add(i);
+            argsByRow.put(i, values);
+        }
+        if (single && errors[0] != null) {
+            return upsertFailed(HttpStatus.BAD_REQUEST, errors[0]);
+        }
+
+        // ---------- WRITE IN CHUNKS ----------
+        Map<Integer, Map<String, Object>> stored = new HashMap<>();
+        Map<Integer, Boolean> insertedByRow = new HashMap<>();
+
+        for (Map.Entry<List<List<String>>, List<Integer>> shape : rowsByShape.entrySet()) {
+
+            List<String> insertCols = shape.getKey().get(0);
+            List<String> updateCols = shape.getKey().get(1);
+
+            // stay below the bind parameter limit of the PostgreSQL protocol
+            int chunkSize = Math.max(1, Math.min(batchChunkSize, (MAX_BIND_PARAMETERS - modifiedCols.size()) / insertCols.size()));
+
+            List<Integer> indexes = shape.getValue();
+            for (int from = 0; from < indexes.size(); from += chunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+
+                int rowCount = chunk.size();
+                String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "upsert", targetName,
+                                insertCols, updateCols, modifiedCols, rowCount),
+                        () -> UpsertQueryBuilder.sql(descriptor, targetName, insertCols, updateCols, modifiedCols, rowCount));
+                List<Object> params = new ArrayList<>();
+                for (Integer idx : chunk) {
+                    params.addAll(argsByRow.get(idx));
+                }
+                params.addAll(modifiedValues);
+
+                try {
+                    List<Map<String, Object>> returned = transactionTemplate.execute(status ->
+                            jdbcTemplate.query(sql, descriptor.getRowFormatter().newRowMapper(), params.toArray()));
+                    UpsertQueryBuilder.matchReturnedRows(chunk, rows, returned, targetName, stored, insertedByRow);
+                } catch (Exception ex) {
+                    log.error("Upsert chunk failed for {}.{} : {}", schema, table, ex.getMessage());
+                    if (chunk.size() == 1 || isMissingConflictConstraint(ex)) {
+                        for (Integer idx : chunk) {
+                            errors[idx] = upsertError(ex, targetName);
+                        }
+                    } else {
+                        // the chunk was rolled back as a whole: retry its rows one by one so only
+                        // the offending rows are reported
+                        String rowSql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "upsert",
+                                        targetName, insertCols, updateCols, modifiedCols, 1),
+                                () -> UpsertQueryBuilder.sql(descriptor, targetName, insertCols, updateCols, modifiedCols, 1));
+                        for (Integer idx : chunk) {
+                            List<Object> rowParams = new ArrayList<>(argsByRow.get(idx));
+                            rowParams.addAll(modifiedValues);
+                            try {
+                                List<Map<String, Object>> returned = transactionTemplate.execute(status ->
+                                        jdbcTemplate.query(rowSql, descriptor.getRowFormatter().newRowMapper(), rowParams.toArray()));
+                                UpsertQueryBuilder.matchReturnedRows(List.of(idx), rows, returned, targetName, stored, insertedByRow);
+                            } catch (Exception rowEx) {
+                                errors[idx] = upsertError(rowEx, targetName);
+                            }
+                        }
+                    }
+                }
+                for (Integer idx : chunk) {
+                    if (errors[idx] == null && !stored.containsKey(idx)) errors[idx] = "Upsert returned no row";
+                }
+            }
+        }
+
+        int inserted = (int) insertedByRow.values().stream().filter(Boolean::booleanValue).count();
+        int updated = stored.size() - inserted;
+        if (updated > 0) {
+            eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.UPDATE));
+        } else if (inserted > 0) {
+            eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.INSERT));
+        }
+
+        log.info("Upsert {}.{} | inserted={} updated={} failed={} | {} ms",
+                schema, table, inserted, updated, rows.size() - stored.size(), (System.currentTimeMillis() - start));
+
+        if (single) {
+            if (errors[0] != null) {
+                return upsertFailed(HttpStatus.CONFLICT, errors[0]);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", "success");
+            result.put("action", insertedByRow.get(0) ? "inserted" : "updated");
+            result.put("data", stored.get(0));
+            return ResponseEntity.ok(result);
+        }
 
-    // ------------ NEW FIXED DUPLICATE CHECK (INSERT ONLY) ------------
-    private boolean isDuplicateCodeInsert(String schema, String table, String colName, String value) {
+        // ---------- RESULT PER ROW ----------
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i);
+            if (errors[i] != null) {
+                result.put("status", "error");
+                result.put("message", errors[i]);
+            } else {
+                result.put("status", "success");
+                result.put("action", insertedByRow.get(i) ? "inserted" : "updated");
+                result.put("data", stored.get(i));
+            }
+            results.add(result);
+        }
 
-        String sql = "SELECT EXISTS (" +
-                "SELECT 1 FROM " + schema + "." + table +
-                " WHERE UPPER(" + colName + ") = ?" +
-                ")";
+        int failed = rows.size() - stored.size();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", failed == 0 ? "success" : stored.isEmpty() ? "error" : "partial");
+        result.put("timestamp", LocalDateTime.now().toString());
+        result.put("total", rows.size());
+        result.put("inserted", inserted);
+        result.put("updated", updated);
+        result.put("failed", failed);
+        result.put("results", results);
+        return ResponseEntity.ok(result);
+    }
 
-        return Boolean.TRUE.equals(
-                jdbcTemplate.queryForObject(sql, Boolean.class, value.toUpperCase())
-        );
+    private ResponseEntity<Map<String, Object>> upsertFailed(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of(
+                "status", "error",
+                "timestamp", LocalDateTime.now().toString(),
+                "message", message
+        ));
     }
 
+    private static String upsertError(Exception ex, String targetName) {
+        return "Upsert failed: " + (isMissingConflictConstraint(ex)
+                ? targetName + " has no unique constraint to upsert on"
+                : ex.getMessage());
+    }
 
-    // ------------ NEW FIXED DUPLICATE CHECK (UPDATE WITH ID EXCLUDE) ------------
-    private boolean isDuplicateCode(String schema, String table, String colName, String value, String id, String pk) {
-
-        String sql =
-                "SELECT EXISTS (" +
-                        "  SELECT 1 FROM " + schema + "." + table +
-                        "  WHERE UPPER(" + colName + ") = ?" +
-                        "  AND " + pk + " <> ?" +
-                        ")";
-
-        return Boolean.TRUE.equals(
-                jdbcTemplate.queryForObject(
-                        sql,
-                        Boolean.class,
-                        value.toUpperCase(),
-                        id
-                )
-        );
+    // SQLSTATE 42P10: no unique index or constraint matches the ON CONFLICT column
+    private static boolean isMissingConflictConstraint(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx && "42P10".equals(sqlEx.getSQLState())) return true;
+        }
+        return false;
     }
 
     // ------------------- UPDATE RECORD BY ID -------------------
@@ -1362,13 +2371,13 @@ public class DynamicCrudApiController {
             @RequestBody Map<String, Object> rowData,
             HttpServletRequest request) throws SQLException {
 
-        long start = System.currentTimeMillis();
-        log.info("Update request {}.{} | ID={} | Payload={}", schema, table, id, rowData);
+        if (log.isDebugEnabled()) {
+            log.debug("Update request {}.{} | ID={} | Payload={}", schema, table, id, rowData);
+        }
 
-        List<Map<String, Object>> columns = metadataService.getColumns(schema, table);
-        List<String> pkColumns = metadataService.getPrimaryKeys(schema, table);
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
 
-        if (pkColumns.isEmpty()) {
+        if (descriptor.getPrimaryKeys().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "status", "error",
                     "timestamp", LocalDateTime.now().toString(),
@@ -1376,7 +2385,7 @@ public class DynamicCrudApiController {
             ));
         }
 
-        String pk = pkColumns.get(0);
+        String pk = descriptor.getPrimaryKey();
 
         // ---------- 1️⃣ CHECK VALID GUID ----------
         try {
@@ -1389,30 +2398,11 @@ public class DynamicCrudApiController {
             ));
         }
 
-        // ---------- 2️⃣ CHECK IF RECORD EXISTS ----------
-        String sqlCheck = "SELECT COUNT(*) FROM " + schema + "." + table +
-                " WHERE LOWER(" + pk + ") = LOWER(?)";
-
-        int exists = jdbcTemplate.queryForObject(sqlCheck, Integer.class, id.trim());
-
-        if (exists == 0) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    "status", "error",
-                    "timestamp", LocalDateTime.now().toString(),
-                    "message", "Guid not found for ID: " + id
-            ));
-        }
-
-
         // ---------- 3️⃣ FOREIGN KEY VALIDATION ----------
-        List<Map<String, Object>> foreignKeys = metadataService.getForeignKeys(schema, table);
-
-        for (Map<String, Object> fk : foreignKeys) {
+        Map<ForeignKeyDescriptor, String> fkValues = new LinkedHashMap<>();
+        for (ForeignKeyDescriptor fk : descriptor.getForeignKeys()) {
 
-            String fkColumn = fk.get("fkColumn").toString();
-            String pkTable = fk.get("pkTable").toString();
-            String pkTableSchema = fk.get("pkTableSchema").toString();
-            String pkColumn = fk.get("pkColumn").toString();
+            String fkColumn = fk.getFkColumn();
 
             if (rowData.containsKey(fkColumn)) {
 
@@ -1435,30 +2425,19 @@ public class DynamicCrudApiController {
                     ));
                 }
 
-                String sqlFkCheck = "SELECT COUNT(*) FROM " + pkTableSchema + "." + pkTable +
-                        " WHERE " + pkColumn + " = ?";
-
-                int parentExists = jdbcTemplate.queryForObject(sqlFkCheck, Integer.class, fkValue.toString());
-
-                if (parentExists == 0) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                            "status", "error",
-                            "timestamp", LocalDateTime.now().toString(),
-                            "message", fkColumn + " does not exist: " + fkValue
-                    ));
-                }
+                fkValues.put(fk, fkValue.toString());
             }
         }
 
 
         // ---------- 4️⃣ UNIQUE CODE VALIDATION (FIXED) ----------
-        for (Map<String, Object> col : columns) {
+        Map<String, String> codes = new LinkedHashMap<>();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
 
-            String colNameLower = col.get("name").toString().toLowerCase();
-            String colName = col.get("name").toString();
+            String colName = col.getName();
 
             // Only validate *_code fields
-            if (!colNameLower.endsWith("_code")) continue;
+            if (!col.isUniqueCode()) continue;
 
             // If field not present in request body, skip
             if (!rowData.containsKey(colName)) continue;
@@ -1466,41 +2445,35 @@ public class DynamicCrudApiController {
             String value = rowData.get(colName).toString().trim().toUpperCase();
             if (value.isEmpty()) continue;
 
-            // Main FIX — Exclude same record using pk <> id
-            if (isDuplicateCode(schema, table, colName, value, id, pk)) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
-                        "status", "error",
-                        "timestamp", LocalDateTime.now().toString(),
-                        "message", colName + " already exists: " + value
-                ));
-            }
+            codes.put(colName, value);
+        }
+
+        // Exclude same record using pk <> id
+        ResponseEntity<?> invalid = checkParentsAndCodes("update of " + schema + "." + table,
+                descriptor, fkValues, codes, id);
+        if (invalid != null) {
+            return invalid;
         }
 
 
         // ---------- 5️⃣ SYSTEM FIELDS ----------
-        rowData.put("modified_by", "System");
-        rowData.put("modified_date", LocalDateTime.now());
-        rowData.put("modified_ip_addr", IPUtil.getClientIp(request));
-        rowData.put("modified_uri", request.getRequestURL().toString());
+        applyModifySystemFields(rowData, request);
 
 
         // ---------- 6️⃣ BUILD UPDATE QUERY ----------
         List<String> updateCols = new ArrayList<>();
         List<Object> values = new ArrayList<>();
 
-        for (Map<String, Object> col : columns) {
-            String colName = col.get("name").toString();
-            String type = col.get("type").toString();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
+            String colName = col.getName();
 
             if (pk.equals(colName)) continue;
 
-            if (rowData.containsKey(colName)) {
-                Object val = rowData.get(colName);
+            Object val = rowData.get(colName);
 
-                if (val != null && !val.toString().trim().isEmpty()) {
-                    updateCols.add(colName + " = ?");
-                    values.add(convertValue(val, type, colName));
-                }
+            if (val != null && !val.toString().trim().isEmpty()) {
+                updateCols.add(colName);
+                values.add(ValueConverter.convert(val, col));
             }
         }
 
@@ -1512,18 +2485,31 @@ public class DynamicCrudApiController {
             ));
         }
 
-        values.add(id);
+        // typed, so the lookup uses the primary key index
+        values.add(ValueConverter.toBindValue(descriptor.getColumn(pk), id.trim()));
 
-        String sql = "UPDATE " + schema + "." + table +
-                " SET " + String.join(", ", updateCols) +
-                " WHERE " + pk + " = ?";
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "update", updateCols),
+                () -> "UPDATE " + SqlIdentifiers.qualified(descriptor) + " SET "
+                        + updateCols.stream().map(c -> SqlIdentifiers.quote(c) + " = ?").collect(Collectors.joining(", "))
+                        + " WHERE " + SqlIdentifiers.quote(pk) + " = ? RETURNING *");
 
         try {
-            jdbcTemplate.update(sql, values.toArray());
+            List<Map<String, Object>> stored = jdbcTemplate.query(sql, descriptor.getRowFormatter().newRowMapper(), values.toArray());
+
+            if (stored.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "status", "error",
+                        "timestamp", LocalDateTime.now().toString(),
+                        "message", "Guid not found for ID: " + id
+                ));
+            }
+
+            eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.UPDATE));
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
-                    "message", "Row updated successfully"
+                    "message", "Row updated successfully",
+                    "data", stored.get(0)
             ));
 
         } catch (Exception ex) {
@@ -1534,225 +2520,127 @@ public class DynamicCrudApiController {
             ));
         }
     }
-    private String getColumnType(List<Map<String, Object>> columns, String columnName) {
-        return columns.stream()
-                .filter(c -> columnName.equalsIgnoreCase((String) c.get("name")))
-                .map(c -> (String) c.get("type"))
-                .findFirst()
-                .orElse("text");
-    }
-
-    private Object convertValue(Object value, String dataType, String columnName) {
-        log.info("Converting value '{}' to type '{}' for column '{}'", value, dataType, columnName);
-        if (value == null) return null;
-
-        String str = value.toString().trim();
-
-        // ⭐ Auto UPPERCASE for any "code" field
-        if (columnName != null && columnName.toLowerCase().contains("code")) {
-            str = str.toUpperCase();
-        }
-
-        switch (dataType.toLowerCase()) {
-            case "bigserial":
-            case "bigint":
-            case "integer":
-            case "smallint":
-                return Long.valueOf(str);
-
-            case "numeric":
-            case "decimal":
-                return new java.math.BigDecimal(str);
-
-            case "bool":
-            case "boolean":
-                return Boolean.valueOf(str);
-
-            case "date":
-                return java.sql.Date.valueOf(str);
-
-            case "json":
-            case "jsonb":
-                try {
-                    org.postgresql.util.PGobject jsonObject = new org.postgresql.util.PGobject();
-                    jsonObject.setType("jsonb");
-
-                    String jsonString = str.trim();
-
-                    if (jsonString.startsWith("{") || jsonString.startsWith("[") || jsonString.equalsIgnoreCase("null")) {
-                        jsonObject.setValue(jsonString);
-                    } else {
-                        jsonObject.setValue("\"" + jsonString.replace("\"", "\\\"") + "\"");
-                    }
-
-                    return jsonObject;
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to convert value to JSONB: " + str, e);
-                }
-
-            case "timestamp":
-            case "timestamptz":
-            case "timestamp with time zone":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-                    String cleanedStr = str;
-
-                    int dotIndex = str.indexOf(".");
-                    if (dotIndex != -1) {
-                        cleanedStr = str.substring(0, dotIndex);
-                    }
-
-                    LocalDateTime ldt = LocalDateTime.parse(cleanedStr, formatter);
-                    return Timestamp.valueOf(ldt);
-                } catch (DateTimeParseException e) {
-                    return Timestamp.valueOf(str.replace("T", " "));
-                }
-
-            case "time":
-            case "timetz":
-            case "time with time zone":
-                if (str.contains("+")) {
-                    return Time.valueOf(str.split("\\+")[0]);
-                } else {
-                    return Time.valueOf(str);
-                }
-
-            default:
-                return str; // fallback for varchar text
-        }
-    }
-
     // ------------------- DELETE ROW -------------------
+    // Returns the deleted row, or 404 when no row has the id.
     @DeleteMapping("/{schema}/{table}/{id}")
-    public int deleteRow(
+    public ResponseEntity<?> deleteRow(
             @PathVariable String schema,
             @PathVariable String table,
             @PathVariable String id) throws SQLException {
 
         log.info("Delete request {}.{} | ID={}", schema, table, id);
 
-        List<String> pkCols = metadataService.getPrimaryKeys(schema, table);
-        if (pkCols.isEmpty()) {
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        String pk = descriptor.getPrimaryKey();
+        if (pk == null) {
             throw new RuntimeException("No primary key defined for " + schema + "." + table);
         }
 
-        String pk = pkCols.get(0);
-        String sql = "DELETE FROM " + schema + "." + table + " WHERE " + pk + " = ?";
-        return jdbcTemplate.update(sql, id);
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "delete"),
+                () -> "DELETE FROM " + SqlIdentifiers.qualified(descriptor) + " WHERE " + SqlIdentifiers.quote(pk) + " = ? RETURNING *");
+        List<Map<String, Object>> deleted = jdbcTemplate.query(sql, descriptor.getRowFormatter().newRowMapper(),
+                ValueConverter.toBindValue(descriptor.getColumn(pk), id.trim()));
+
+        if (deleted.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "status", "error",
+                    "timestamp", LocalDateTime.now().toString(),
+                    "message", "Guid not found for ID: " + id
+            ));
+        }
+
+        eventPublisher.publishEvent(new TableChangeEvent(schema, table, TableChangeEvent.Type.DELETE));
+
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Row deleted successfully",
+                "data", deleted.get(0)
+        ));
     }
 
     // Get by Primary Key
     @GetMapping("/{schema}/{table}/{id}")
-    public List<Map<String, Object>> getById(
+    public ResponseEntity<?> getById(
             @PathVariable String schema,
             @PathVariable String table,
-            @PathVariable String id) throws SQLException {
+            @PathVariable String id,
+            NativeWebRequest webRequest) throws SQLException {
 
         log.info("Fetching primary key from {}.{}", schema, table);
 
-        List<String> pkCols = metadataService.getPrimaryKeys(schema, table);
-        if (pkCols.isEmpty()) {
-            throw new RuntimeException("No primary key defined for " + schema + "." + table);
+        if (conditionalGet.notModified(webRequest, Family.DATA, conditionalGet.dataETag(schema, table))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
         }
 
-        String pk = pkCols.get(0);
-        String sql = "SELECT * FROM " + schema + "." + table + " WHERE " + pk + " = ?";
-
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, id);
-
-        // Format & uppercase
-        List<Map<String, Object>> columns = metadataService.getColumns(schema, table);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-
-        for (Map<String, Object> row : rows) {
-            for (Map<String, Object> col : columns) {
-
-                String colName = col.get("name").toString();
-                String colType = col.get("type").toString().toLowerCase();
-
-                Object val = row.get(colName);
-                if (val == null) continue;
-
-                if (colType.contains("timestamp")) {
-                    if (val instanceof Timestamp ts) {
-                        row.put(colName, ts.toLocalDateTime().format(formatter));
-                    } else if (val instanceof java.time.OffsetDateTime odt) {
-                        row.put(colName, odt.toLocalDateTime().format(formatter));
-                    }
-                }
+        if (resultCache.covers(schema, table)) {
+            return resultCache.get(schema, table, "id|" + id.trim(),
+                    () -> ResponseEntity.ok(loadById(schema, table, id)));
+        }
+        return ResponseEntity.ok(loadById(schema, table, id));
+    }
 
-                if (colName.toLowerCase().contains("code")) {
-                    row.put(colName, val.toString().toUpperCase());
-                }
-            }
+    private List<Map<String, Object>> loadById(String schema, String table, String id) throws SQLException {
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        String pk = descriptor.getPrimaryKey();
+        if (pk == null) {
+            throw new RuntimeException("No primary key defined for " + schema + "." + table);
         }
 
-        return rows;
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "select-by-id"),
+                () -> "SELECT * FROM " + SqlIdentifiers.qualified(descriptor) + " WHERE " + SqlIdentifiers.quote(pk) + " = ?");
+
+        // Format & uppercase while mapping
+        return jdbcTemplate.query(sql, descriptor.getRowFormatter().newRowMapper(),
+                ValueConverter.toBindValue(descriptor.getColumn(pk), id.trim()));
     }
 
     // Dynamic Search
+    // Filters, OR-groups, sort, limit and fields as described in SearchQueryBuilder; an unknown
+    // column or a malformed value answers 400.
     @GetMapping("/{schema}/{table}/search")
-    public List<Map<String, Object>> search(
+    public ResponseEntity<?> search(
             @PathVariable String schema,
             @PathVariable String table,
-            @RequestParam MultiValueMap<String, String> filterParams) {
+            @RequestParam MultiValueMap<String, String> filterParams,
+            NativeWebRequest webRequest) throws SQLException {
 
         log.info("Dynamic search {}.{} filters={}", schema, table, filterParams);
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ")
-                .append(schema).append(".").append(table);
-
-        List<Object> values = new ArrayList<>();
-
-        if (!filterParams.isEmpty()) {
-
-            sql.append(" WHERE ");
-            List<String> conditions = new ArrayList<>();
-
-            Map<String, Integer> columnTypes = metadataService.getColumnTypes(schema, table);
-
-            for (Map.Entry<String, List<String>> entry : filterParams.entrySet()) {
-
-                String column = entry.getKey();
-
-                for (String rawValue : entry.getValue()) {
-
-                    String operator = "=";
-                    String value = rawValue;
-
-                    if (rawValue.startsWith(">=")) { operator = ">="; value = rawValue.substring(2); }
-                    else if (rawValue.startsWith("<=")) { operator = "<="; value = rawValue.substring(2); }
-                    else if (rawValue.startsWith(">")) { operator = ">"; value = rawValue.substring(1); }
-                    else if (rawValue.startsWith("<")) { operator = "<"; value = rawValue.substring(1); }
-                    else if (rawValue.startsWith("!=")) { operator = "!="; value = rawValue.substring(2); }
-
-                    int colType = columnTypes.getOrDefault(column, java.sql.Types.VARCHAR);
-                    Object typedValue = value;
+        if (conditionalGet.notModified(webRequest, Family.DATA, conditionalGet.dataETag(schema, table))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
-                    if (column.toLowerCase().contains("code")) {
-                        conditions.add("UPPER(" + column + ") " + operator + " ?");
-                        typedValue = value.toUpperCase();
-                    }
-                    else if (colType == java.sql.Types.INTEGER || colType == java.sql.Types.BIGINT) {
-                        conditions.add(column + " " + operator + " ?");
-                        typedValue = Long.parseLong(value);
-                    }
-                    else if (colType == java.sql.Types.DECIMAL || colType == java.sql.Types.NUMERIC) {
-                        conditions.add(column + " " + operator + " ?");
-                        typedValue = new java.math.BigDecimal(value);
-                    }
-                    else {
-                        conditions.add(column + " " + operator + " ?");
-                    }
+        if (resultCache.covers(schema, table)) {
+            // parameter order does not change the result
+            String shape = "search|" + new TreeMap<>(filterParams);
+            return resultCache.get(schema, table, shape, () -> loadSearch(schema, table, filterParams));
+        }
+        return loadSearch(schema, table, filterParams);
+    }
 
-                    values.add(typedValue);
-                }
-            }
+    private ResponseEntity<?> loadSearch(String schema, String table,
+                                         MultiValueMap<String, String> filterParams) throws SQLException {
+        if (!dropdownConfig.isValidSchema(schema)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Enter valid schema"));
+        }
 
-            sql.append(String.join(" AND ", conditions));
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        if (descriptor.getColumnCount() == 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Table not found: " + schema + "." + table));
         }
 
-        return jdbcTemplate.queryForList(sql.toString(), values.toArray());
+        SearchQueryBuilder.Query query;
+        try {
+            query = SearchQueryBuilder.build(descriptor, filterParams,
+                    rowValidationService.isExactCodeMatch(), maxPageSize);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "search", query.getShape()),
+                query::getSql);
+        return ResponseEntity.ok(jdbcTemplate.queryForList(sql, query.getParams().toArray()));
     }
 
 
@@ -1760,96 +2648,193 @@ public class DynamicCrudApiController {
 
 
     // ------------------- GET FK VALUES FOR DROPDOWN -------------------
+    // Options { id, value } of the referenced table, ordered by value then id. Without q, limit
+    // and after the whole list is returned (legacy behaviour); with any of them a keyset page
+    // { data, limit, nextCursor }. q matches the start of the value case-insensitively, or any
+    // part of it with match=contains; prefix search can use an index on LOWER(value column)
+    // with text_pattern_ops. Responses are cached until the referenced table is written.
     @GetMapping("/{schema}/{table}/fk-values/{column}")
-    public List<Map<String, Object>> getForeignKeyValues(
+    public ResponseEntity<?> getForeignKeyValues(
             @PathVariable String schema,
             @PathVariable String table,
-            @PathVariable String column) throws SQLException {
+            @PathVariable String column,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "prefix") String match,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            NativeWebRequest webRequest) throws SQLException {
+
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        ForeignKeyDescriptor fkInfo = descriptor.getForeignKey(column);
+        if (fkInfo == null) {
+            throw new RuntimeException("No FK found for column " + column);
+        }
+        if (conditionalGet.notModified(webRequest, Family.FK_VALUES,
+                conditionalGet.fkValuesETag(schema, table, descriptor, fkInfo))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
-        List<Map<String, Object>> fks = metadataService.getForeignKeys(schema, table);
+        boolean contains = "contains".equalsIgnoreCase(match);
+        if (!contains && !"prefix".equalsIgnoreCase(match)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "match must be prefix or contains"));
+        }
 
-        Map<String, Object> fkInfo = fks.stream()
-                .filter(fk -> fk.get("fkColumn").equals(column))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No FK found for column " + column));
+        String search = q == null || q.isBlank() ? null : q.trim().toLowerCase();
+        boolean hasCursor = after != null && !after.isBlank();
+        boolean paged = search != null || limit != null || hasCursor;
 
-        String pkTable = (String) fkInfo.get("pkTable");
-        String pkTableSchema = (String) fkInfo.get("pkTableSchema");
-        String pkColumn = (String) fkInfo.get("pkColumn");
-        String displayColumn = (String) fkInfo.get("displayColumn");
+        int pageSize = 0;
+        if (paged) {
+            pageSize = limit != null ? limit : defaultPageSize;
+            if (pageSize <= 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "limit must be greater than 0"));
+            }
+            if (maxPageSize > 0) {
+                pageSize = Math.min(pageSize, maxPageSize);
+            }
+        }
 
-        if (displayColumn.equalsIgnoreCase("NONE")) {
-            displayColumn = pkColumn;
+        PageCursor cursor = null;
+        if (hasCursor) {
+            try {
+                cursor = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Invalid cursor"));
+            }
+            if (!fkInfo.getDisplayColumnOrPk().equals(cursor.getSortColumn())) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Cursor does not belong to " + column + " values"));
+            }
         }
 
-        String sql = "SELECT " + pkColumn + " as id, " + displayColumn + " as value FROM "
-                + pkTableSchema + "." + pkTable;
+        TableDescriptor parent = metadataService.getTableDescriptor(fkInfo.getPkTableSchema(), fkInfo.getPkTable());
+        String query = (contains ? "contains" : "prefix") + "|" + (search == null ? "" : search)
+                + "|" + pageSize + "|" + (hasCursor ? after.trim() : "");
 
-        return jdbcTemplate.queryForList(sql);
+        final int size = pageSize;
+        final PageCursor from = cursor;
+        return fkValuesCache.get(fkInfo, query,
+                () -> loadForeignKeyValues(fkInfo, parent, search, contains, paged, size, from));
     }
 
-    // ------------------- UTILITY METHODS -------------------
-    public String getDropdownColumnsForForeignKeys(String schema, String table) {
-        try {
-            if (schema.isBlank() && table.isBlank()) {
-                return "";
-            }
-            if (getValidSchemaList(schema)) {
-                String tableName = schema + "." + table;
+    private Object loadForeignKeyValues(ForeignKeyDescriptor fkInfo, TableDescriptor parent, String search,
+                                        boolean contains, boolean paged, int pageSize, PageCursor cursor) {
 
-                String key = getProperty(tableName + ".key");
-                String val = getProperty(tableName + ".val");
+        String valueColumn = fkInfo.getDisplayColumnOrPk();
+        ColumnDescriptor valueDescriptor = parent.getColumn(valueColumn);
+        boolean textual = valueDescriptor != null && valueDescriptor.getType().isTextual();
 
-                if (!key.isBlank() && !val.isBlank()) {
-                    return key + " as id, " + val + " as value ";
-                }
+        List<Object> params = new ArrayList<>();
+        if (search != null) {
+            params.add((contains ? "%" : "") + SearchQueryBuilder.escapeLike(search) + "%");
+        }
+        Keyset keyset = Keyset.NONE;
+        if (cursor != null) {
+            Object keyValue = ValueConverter.toBindValue(parent.getColumn(fkInfo.getPkColumn()), cursor.getKeyValue());
+            if (cursor.getSortValue() == null) {
+                keyset = Keyset.NULL_BLOCK;
+            } else {
+                keyset = Keyset.SORT_AND_KEY;
+                params.add(ValueConverter.toBindValue(valueDescriptor, cursor.getSortValue()));
             }
-        } catch (Exception ignored) {}
-        return "";
-    }
+            params.add(keyValue);
+        }
+        if (paged) {
+            params.add(pageSize + 1);
+        }
 
-    public boolean getValidSchemaList(String schema) {
+        Keyset condition = keyset;
+        String sql = sqlTemplates.get(SqlTemplateCache.key(fkInfo.getQualifiedPkTable(), "fk-values",
+                        fkInfo.getPkColumn(), valueColumn, search != null, condition, paged),
+                () -> foreignKeyValuesSql(fkInfo, textual, search != null, condition, paged));
 
-        if (schema == null || schema.isBlank()) return false;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, params.toArray());
+        if (!paged) {
+            return Collections.unmodifiableList(rows);
+        }
 
-        try {
-            String schemas = getProperty("valid.schema.list");
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            nextCursor = new PageCursor(valueColumn,
+                    Objects.toString(last.get("value"), null),
+                    Objects.toString(last.get("id"), null)).encode();
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("data", Collections.unmodifiableList(rows));
+        page.put("limit", pageSize);
+        page.put("nextCursor", nextCursor);
+        return Collections.unmodifiableMap(page);
+    }
+
+    // options of the referenced table: id and display value, ordered by value then id
+    private static String foreignKeyValuesSql(ForeignKeyDescriptor fkInfo, boolean textual, boolean search,
+                                              Keyset keyset, boolean paged) {
 
-            if (schemas == null || schemas.isBlank()) return false;
+        String idColumn = SqlIdentifiers.quote(fkInfo.getPkColumn());
+        String valueColumn = SqlIdentifiers.quote(fkInfo.getDisplayColumnOrPk());
 
-            List<String> schemaList = Arrays.stream(schemas.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .distinct()
-                    .collect(Collectors.toList());
+        StringBuilder sql = new StringBuilder("SELECT ").append(idColumn).append(" as id, ")
+                .append(valueColumn).append(" as value FROM ").append(SqlIdentifiers.qualifiedParent(fkInfo));
+        List<String> conditions = new ArrayList<>();
 
-            return schemaList.contains(schema);
+        if (search) {
+            // q is matched literally, PostgreSQL's default LIKE escape is the backslash
+            conditions.add((textual ? "LOWER(" + valueColumn + ")" : "LOWER(CAST(" + valueColumn + " AS varchar))") + " LIKE ?");
         }
-        catch (Exception ignored) {}
 
-        return false;
+        if (keyset == Keyset.NULL_BLOCK) {
+            // already inside the trailing NULL block
+            conditions.add("(" + valueColumn + " IS NULL AND " + idColumn + " > ?)");
+        } else if (keyset == Keyset.SORT_AND_KEY) {
+            conditions.add("((" + valueColumn + ", " + idColumn + ") > (?, ?) OR " + valueColumn + " IS NULL)");
+        }
+
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(valueColumn).append(" NULLS LAST, ").append(idColumn);
+        if (paged) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
     }
 
-    public String getProperty(String val) {
-        String propValue = "";
-        try {
-            Properties props = new Properties();
-            props.load(new ClassPathResource("tables-dropdown.properties").getInputStream());
-            propValue = props.getProperty(val);
-            if (!propValue.isBlank()) {
-                return propValue;
+    // ------------------- UTILITY METHODS -------------------
+    public String getDropdownColumnsForForeignKeys(String schema, String table) {
+        if (schema == null || table == null || schema.isBlank() || table.isBlank()) {
+            return "";
+        }
+        if (dropdownConfig.isValidSchema(schema)) {
+            TablesDropdownConfig.DropdownMapping mapping = dropdownConfig.getDropdown(schema, table);
+            if (mapping != null) {
+                return mapping.getKeyColumn() + " as id, " + mapping.getValueColumn() + " as value ";
             }
-        } catch (Exception ignored) {}
-        return propValue;
+        }
+        return "";
     }
+
     // ------------------- GET TABLE CONSTRAINTS -------------------
     @GetMapping("/{schema}/{table}/constraints")
     public List<Map<String, Object>> getConstraints(
             @PathVariable String schema,
-            @PathVariable String table) {
+            @PathVariable String table,
+            NativeWebRequest webRequest) throws SQLException {
 
         log.info("Getting constraints for {}.{}", schema, table);
 
+        // constraints are read from the catalog, DDL on the table also reloads its metadata
+        TableDescriptor descriptor = metadataService.getTableDescriptor(schema, table);
+        if (conditionalGet.notModified(webRequest, Family.METADATA,
+                conditionalGet.metadataETag(schema, table, descriptor))) {
+            return null;
+        }
+
         String sql = """
             SELECT 
                 conname, 
@@ -0,0 +1,39 @@
+package com.example.demo;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.service.CodeIndexAdvisor;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/admin/indexes")
+public class IndexAdvisorController {
+
+    @Autowired
+    private CodeIndexAdvisor codeIndexAdvisor;
+
+    private static final Logger log = LoggerFactory.getLogger(IndexAdvisorController.class);
+
+    // ------------------- MISSING INDEXES FOR *_code DUPLICATE CHECKS -------------------
+    @GetMapping("/code-columns")
+    public ResponseEntity<Map<String, Object>> codeColumns() {
+        try {
+            return ResponseEntity.ok(codeIndexAdvisor.report());
+        } catch (Exception ex) {
+            log.error("Code index report failed: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "status", "error",
+                    "timestamp", LocalDateTime.now().toString(),
+                    "message", "Code index report failed: " + ex.getMessage()
+            ));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.metrics.SqlStatementLog;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Slowest JDBC statements of this node, normalised, from {@link SqlStatementLog}. Local-only by
+ * default: requests from another host get a 403, whatever their token.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/admin/sql")
+public class SqlStatsController {
+
+    @Autowired
+    private SqlStatementLog statementLog;
+
+    @Value("${jdbc.statement-timing.endpoint.local-only:true}")
+    private boolean localOnly;
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsController.class);
+
+    // ------------------- TOP-N SLOWEST STATEMENTS -------------------
+    @GetMapping("/slowest")
+    public ResponseEntity<?> slowest(
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "by", defaultValue = "max") String by,
+            HttpServletRequest request) {
+
+        if (!allowed(request)) {
+            return forbidden();
+        }
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be greater than 0"));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>(statementLog.stats());
+        try {
+            body.put("by", by);
+            body.put("data", statementLog.slowest(limit, by));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    // ------------------- RESET STATEMENT STATISTICS -------------------
+    @DeleteMapping("/stats")
+    public ResponseEntity<?> reset(HttpServletRequest request) {
+        if (!allowed(request)) {
+            return forbidden();
+        }
+        log.info("Admin request to reset JDBC statement statistics");
+        statementLog.reset();
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Statement statistics cleared"
+        ));
+    }
+
+    // the socket address: X-Forwarded-For is set by the client and proves nothing
+    private boolean allowed(HttpServletRequest request) {
+        if (!localOnly) return true;
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "status", "error",
+                "timestamp", LocalDateTime.now().toString(),
+                "message", "Statement statistics are only served to local requests"
+        ));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.event;
+
+/**
+ * Published when invalidations may have been missed (the invalidation bus reconnected), so
+ * every cache drops all of its entries.
+ */
+public class CacheFlushEvent {
+
+    private final String reason;
+
+    public CacheFlushEvent(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "flush (" + reason + ")";
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.event;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forwards the table changes of this node to the {@link InvalidationBus} and turns the changes
+ * of other nodes (and DDL reported by the database trigger) back into remote
+ * {@link TableChangeEvent}s, so every cache listening for local writes also drops entries
+ * written elsewhere.
+ */
+@Component
+public class CacheInvalidationRelay implements InvalidationBus.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationRelay.class);
+
+    private final InvalidationBus bus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+
+    public CacheInvalidationRelay(
+            InvalidationBus bus,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${cache.invalidation.node-id:}") String nodeId) {
+
+        this.bus = bus;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId == null || nodeId.isBlank()
+                ? UUID.randomUUID().toString().substring(0, 8)
+                : nodeId.replace(":", "_");
+        bus.subscribe(this);
+        log.info("Cache invalidation node id {} on {}", this.nodeId, bus.getClass().getSimpleName());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onTableChange(TableChangeEvent event) {
+        if (!event.isRemote()) {
+            bus.publish(new InvalidationMessage(nodeId, event.getType(), event.getSchema(), event.getTable()));
+        }
+    }
+
+    @Override
+    public void onMessage(InvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) return;
+
+        log.debug("Invalidation from {}: {} {}.{}", message.getOrigin(), message.getType(),
+                message.getSchema(), message.getTable());
+        eventPublisher.publishEvent(
+                new TableChangeEvent(message.getSchema(), message.getTable(), message.getType(), true));
+    }
+
+    @Override
+    public void onFlush(String reason) {
+        log.warn("Flushing all caches: {}", reason);
+        eventPublisher.publishEvent(new CacheFlushEvent(reason));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.event;
+
+/**
+ * Carries table changes between the nodes of a deployment so each can drop what it cached.
+ * Delivery is at most once; a bus that may have lost messages tells its listeners to flush.
+ */
+public interface InvalidationBus {
+
+    interface Listener {
+
+        void onMessage(InvalidationMessage message);
+
+        /** Messages may have been missed (e.g. after a reconnect), everything cached is suspect. */
+        void onFlush(String reason);
+    }
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Listener listener);
+}
@@ -0,0 +1,66 @@
+package com.example.event;
+
+/**
+ * A table change travelling between nodes over the {@link InvalidationBus}. On the wire it is
+ * the NOTIFY payload {@code origin:TYPE:schema.table}; the database DDL trigger sends
+ * {@code db:DDL:schema.table}.
+ */
+public class InvalidationMessage {
+
+    private final String origin;
+    private final TableChangeEvent.Type type;
+    private final String schema;
+    private final String table;
+
+    public InvalidationMessage(String origin, TableChangeEvent.Type type, String schema, String table) {
+        this.origin = origin;
+        this.type = type;
+        this.schema = schema;
+        this.table = table;
+    }
+
+    /**
+     * @return the message, or null when the payload is not one
+     */
+    public static InvalidationMessage parse(String payload) {
+        if (payload == null) return null;
+
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) return null;
+
+        int dot = parts[2].indexOf('.');
+        if (dot <= 0 || dot == parts[2].length() - 1) return null;
+
+        try {
+            return new InvalidationMessage(parts[0], TableChangeEvent.Type.valueOf(parts[1]),
+                    parts[2].substring(0, dot), parts[2].substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String toPayload() {
+        return origin + ":" + type + ":" + schema + "." + table;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public TableChangeEvent.Type getType() {
+        return type;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        return toPayload();
+    }
+}
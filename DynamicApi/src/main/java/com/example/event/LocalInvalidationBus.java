@@ -0,0 +1,32 @@
+package com.example.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM bus that hands every message to every listener on the publishing thread. Used for a
+ * single node and in tests, where several listeners stand in for several nodes.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        for (Listener listener : listeners) {
+            listener.onMessage(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /** Tells every listener to flush, as a bus does after losing its connection. */
+    public void flush(String reason) {
+        for (Listener listener : listeners) {
+            listener.onFlush(reason);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.event;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bus over PostgreSQL LISTEN/NOTIFY. Messages are sent with pg_notify through the application's
+ * pool and received on a dedicated connection (outside the pool, it is held for the lifetime of
+ * the node) by a daemon thread. When that connection drops the thread reconnects and, since
+ * notifications sent meanwhile are lost, tells the listeners to flush.
+ */
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    public static final String CHANNEL = "dynamic_api_invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final long pollMillis;
+    private final long reconnectDelayMillis;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password,
+                                   long pollMillis, long reconnectDelayMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.pollMillis = pollMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+
+        if (username != null) connectionProperties.setProperty("user", username);
+        if (password != null) connectionProperties.setProperty("password", password);
+        // notice a silently dropped connection while idle
+        connectionProperties.setProperty("tcpKeepAlive", "true");
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, message.toPayload());
+        } catch (RuntimeException e) {
+            // the write itself succeeded; other nodes catch up when their entries expire
+            log.warn("Could not publish invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::listen, "invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void shutdown() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        // nothing is cached before the first connection, every later one may have missed messages
+        boolean missed = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+                if (missed) {
+                    flush("invalidation listener reconnected");
+                }
+                missed = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollMillis);
+                    if (notifications == null) continue;
+
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                missed = true;
+                if (!running) break;
+                log.warn("Invalidation listener connection failed, retrying in {} ms: {}",
+                        reconnectDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.info("Invalidation listener stopped");
+    }
+
+    private void deliver(String payload) {
+        InvalidationMessage message = InvalidationMessage.parse(payload);
+        if (message == null) {
+            log.warn("Ignoring invalid invalidation payload '{}'", payload);
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener failed for {}", message, e);
+            }
+        }
+    }
+
+    private void flush(String reason) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onFlush(reason);
+            } catch (RuntimeException e) {
+                log.error("Invalidation flush failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.event;
+
+/**
+ * Published after rows of a table were written through the dynamic API, so caches that hold
+ * data of that table can drop it. Remote events were received from another node (or from the
+ * database DDL trigger) over the {@link InvalidationBus} and are not forwarded again.
+ */
+public class TableChangeEvent {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE,
+        /** Columns, constraints or the table itself changed. */
+        DDL
+    }
+
+    private final String schema;
+    private final String table;
+    private final Type type;
+    private final boolean remote;
+
+    public TableChangeEvent(String schema, String table, Type type) {
+        this(schema, table, type, false);
+    }
+
+    public TableChangeEvent(String schema, String table, Type type, boolean remote) {
+        this.schema = schema;
+        this.table = table;
+        this.type = type;
+        this.remote = remote;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    public String getQualifiedName() {
+        return schema + "." + table;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + getQualifiedName() + (remote ? " (remote)" : "");
+    }
+}
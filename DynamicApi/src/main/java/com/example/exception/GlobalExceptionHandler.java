@@ -1,5 +1,6 @@
 package com.example.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -17,7 +18,8 @@ public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleException(Exception ex) {
+    public ResponseEntity<Map<String, Object>> handleException(Exception ex, HttpServletResponse response) throws Exception {
+        rethrowIfCommitted(ex, response);
         logger.error("Unhandled exception caught: ", ex);
 
         Map<String, Object> errorResponse = new HashMap<>();
@@ -28,8 +30,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
+    @ExceptionHandler(ValidationTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationTimeout(ValidationTimeoutException ex) {
+        logger.warn("Validation timed out: {}", ex.getMessage());
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("timestamp", LocalDateTime.now().toString());
+        error.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex) {
+    public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex, HttpServletResponse response) throws Exception {
+        rethrowIfCommitted(ex, response);
 
         Map<String, Object> error = new HashMap<>();
         error.put("status", "error");
@@ -37,5 +52,12 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
-}
 
+    // part of the body (e.g. a streamed read) is already out: an error body would be appended to it,
+    // so the exception goes on to the container, which aborts the connection
+    private static void rethrowIfCommitted(Exception ex, HttpServletResponse response) throws Exception {
+        if (response.isCommitted()) {
+            throw ex;
+        }
+    }
+}
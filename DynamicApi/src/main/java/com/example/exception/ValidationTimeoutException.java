@@ -0,0 +1,13 @@
+package com.example.exception;
+
+/**
+ * A step of the parallel validation pipeline did not finish within its timeout.
+ */
+public class ValidationTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ValidationTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.cache.TableMetadataCache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Meters of the dynamic CRUD endpoints, per schema, table and operation (the handler method):
+ * <pre>
+ *   dynamic.api.requests   timer, also tagged by outcome (SUCCESS, REDIRECTION for 304, CLIENT_ERROR, ...)
+ *   dynamic.api.phase      timer per phase: metadata, validation, sql, serialization
+ *   dynamic.api.rows       rows returned or written
+ *   dynamic.api.payload    request and response body bytes, tagged by direction
+ * </pre>
+ * Table names come from the URL, so a name is only used as a tag while metadata of an existing
+ * table of that name is cached, whatever the outcome (/columns answers 200 for any name); anything
+ * else is tagged "other" to keep the series bounded.
+ */
+@Component
+public class CrudMetrics {
+
+    static final String REQUESTS = "dynamic.api.requests";
+    static final String PHASE = "dynamic.api.phase";
+    static final String ROWS = "dynamic.api.rows";
+    static final String PAYLOAD = "dynamic.api.payload";
+
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final TableMetadataCache metadataCache;
+
+    public CrudMetrics(MeterRegistry registry, TableMetadataCache metadataCache) {
+        this.registry = registry;
+        this.metadataCache = metadataCache;
+    }
+
+    void record(String schema, String table, String operation, Outcome outcome, long nanos,
+                RequestPhases.Recording phases, long requestBytes, long responseBytes) {
+
+        boolean known = schema != null && table != null && metadataCache.contains(schema, table);
+        Tags tags = Tags.of(
+                "schema", schema == null ? NONE : known ? lower(schema) : OTHER,
+                "table", table == null ? NONE : known ? lower(table) : OTHER,
+                "operation", operation);
+
+        Timer.builder(REQUESTS)
+                .description("Dynamic CRUD requests")
+                .tags(tags).tag("outcome", outcome.name())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        for (RequestPhases.Phase phase : RequestPhases.Phase.values()) {
+            if (phases.entered(phase)) {
+                Timer.builder(PHASE)
+                        .description("Time of dynamic CRUD requests per phase")
+                        .tags(tags).tag("phase", phase.tag())
+                        .register(registry)
+                        .record(phases.nanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (outcome == Outcome.SUCCESS && phases.rows() >= 0) {
+            DistributionSummary.builder(ROWS)
+                    .description("Rows returned or written per dynamic CRUD request")
+                    .baseUnit("rows")
+                    .tags(tags)
+                    .register(registry)
+                    .record(phases.rows());
+        }
+
+        payload(tags, "request", requestBytes);
+        payload(tags, "response", responseBytes);
+    }
+
+    private void payload(Tags tags, String direction, long bytes) {
+        if (bytes <= 0) return;
+
+        DistributionSummary.builder(PAYLOAD)
+                .description("Body size of dynamic CRUD requests and responses")
+                .baseUnit("bytes")
+                .tags(tags).tag("direction", direction)
+                .register(registry)
+                .record(bytes);
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
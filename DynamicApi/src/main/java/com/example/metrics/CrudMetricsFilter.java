@@ -0,0 +1,139 @@
+package com.example.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Times every request of the dynamic CRUD API and records it in {@link CrudMetrics} together
+ * with its {@link RequestPhases phases}, row count and body sizes. The operation is the name of
+ * the handler method; requests that matched no handler are not recorded.
+ */
+@Component
+public class CrudMetricsFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/dynamicApi/";
+
+    @Autowired
+    private CrudMetrics metrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        CountingResponse counting = new CountingResponse(response);
+        RequestPhases.Recording phases = RequestPhases.begin();
+        request.setAttribute(RequestPhases.ATTRIBUTE, phases);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            RequestPhases.end(phases);
+            record(request, counting, failed, System.nanoTime() - start, phases);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void record(HttpServletRequest request, CountingResponse response, boolean failed,
+                        long nanos, RequestPhases.Recording phases) {
+
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String schema = variables == null ? null : variables.get("schema");
+        String table = variables == null ? null : variables.get("table");
+
+        metrics.record(schema, table, handler.getMethod().getName(),
+                Outcome.forStatus(failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus()),
+                nanos, phases, request.getContentLengthLong(), response.bytes());
+    }
+
+    // counts the body bytes; message converters and the streaming reads write to the output stream
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream out;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                out = new CountingOutputStream(super.getOutputStream());
+            }
+            return out;
+        }
+
+        private long bytes() {
+            return out == null ? 0 : out.count;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.metrics;
+
+import java.util.Locale;
+
+/**
+ * Wall-clock time a request spends in each phase, collected on the request thread by
+ * {@link CrudMetricsFilter}. A phase entered inside another one (SQL run by a validation check,
+ * parent metadata loaded while validating) is charged to the outer phase, so the phases of a
+ * request never add up to more than its duration. Work handed to other threads counts for the
+ * phase the request thread waits in. Outside a recorded request every call is a plain pass-through.
+ */
+public final class RequestPhases {
+
+    public enum Phase {
+        METADATA, VALIDATION, SQL, SERIALIZATION;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /** Request attribute holding the {@link Recording} of a recorded request, e.g. for the access log. */
+    public static final String ATTRIBUTE = RequestPhases.class.getName();
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private RequestPhases() {
+    }
+
+    /** Runs the work, charging its duration to the phase unless another phase is already running. */
+    public static <T, E extends Exception> T time(Phase phase, Work<T, E> work) throws E {
+        Recording recording = CURRENT.get();
+        if (recording == null || recording.depth > 0) {
+            return work.run();
+        }
+
+        recording.depth++;
+        long start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            recording.depth--;
+            recording.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /** Rows read or written by the current request, for responses whose body does not show them. */
+    public static void rows(long rows) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.rows = rows;
+        }
+    }
+
+    static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /** The response body is about to be written; it counts as serialization until the request ends. */
+    static void serializationStarted(long rows) {
+        Recording recording = CURRENT.get();
+        if (recording != null && recording.serializationStart == 0) {
+            recording.serializationStart = System.nanoTime();
+            if (recording.rows < 0) {
+                recording.rows = rows;
+            }
+        }
+    }
+
+    static Recording begin() {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void end(Recording recording) {
+        CURRENT.remove();
+        if (recording.serializationStart != 0) {
+            recording.add(Phase.SERIALIZATION, System.nanoTime() - recording.serializationStart);
+        }
+    }
+
+    public static final class Recording {
+        private final long[] nanos = new long[Phase.values().length];
+        private final boolean[] entered = new boolean[Phase.values().length];
+        private int depth;
+        private long rows = -1;
+        private long serializationStart;
+
+        private void add(Phase phase, long elapsed) {
+            nanos[phase.ordinal()] += elapsed;
+            entered[phase.ordinal()] = true;
+        }
+
+        public boolean entered(Phase phase) {
+            return entered[phase.ordinal()];
+        }
+
+        public long nanos(Phase phase) {
+            return nanos[phase.ordinal()];
+        }
+
+        /** -1 when unknown. */
+        public long rows() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the start of the serialization phase of a recorded request, just before the message
+ * converter writes the body, and takes the row count from the body: a list, the "results" of a
+ * batch, the "data" of a page or of a single-row write, or one row.
+ */
+@ControllerAdvice
+public class ResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (RequestPhases.isRecording()) {
+            RequestPhases.serializationStarted(rowCount(body));
+        }
+        return body;
+    }
+
+    static long rowCount(Object body) {
+        if (body instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (body instanceof Map<?, ?> map) {
+            Object rows = map.containsKey("results") ? map.get("results") : map.get("data");
+            if (rows instanceof Collection<?> list) return list.size();
+            return rows != null || !map.isEmpty() ? 1 : 0;
+        }
+        // pre-serialized (result cache) or empty
+        return -1;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.cache.BoundedCache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Per-statement JDBC timings reported by {@link TimedDataSource}, aggregated by normalised SQL
+ * (literals replaced by ?, lists of placeholders and of VALUES rows collapsed). Statements at or
+ * over the slow threshold are written to the {@value #SLOW_QUERY_LOGGER} logger with the types of
+ * their bind parameters, never the values. Also published as dynamic.api.jdbc.* meters per
+ * statement kind (select, insert, update, delete, metadata, other).
+ * <p>
+ * Recording runs on the request thread for every statement, so the normalised text and kind are
+ * memoised per raw SQL (the SQL template cache keeps raw texts few) and the meters of each kind
+ * are registered once in {@link #bindTo}.
+ */
+public class SqlStatementLog implements MeterBinder {
+
+    public static final String SLOW_QUERY_LOGGER = "dynamic-api.slow-query";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementLog.class);
+    private static final Logger slowLog = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.\"])-?\\d+(?:\\.\\d+)?(?![\\w$\"])");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\([^()]*\\))(?:\\s*,\\s*\\1)+");
+
+    private static final List<String> KINDS = List.of("select", "insert", "update", "delete", "metadata", "other");
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+
+    private final Map<String, Aggregate> statements = new ConcurrentHashMap<>();
+    private final BoundedCache<String, Shape> shapes;
+    private final LongAdder untracked = new LongAdder();
+
+    private volatile Timer acquireTimer;
+    private volatile Map<String, Timer> statementTimers = Map.of();
+    private volatile Map<String, DistributionSummary> rowSummaries = Map.of();
+
+    // normalised text and kind of a raw SQL text
+    private record Shape(String statement, String kind) {}
+
+    /**
+     * @param slowThresholdMillis statements taking at least this long are logged as slow, -1 for none
+     * @param maxStatements       distinct normalised statements kept; later ones are only counted
+     */
+    public SqlStatementLog(boolean enabled, long slowThresholdMillis, int maxStatements) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxStatements = maxStatements;
+        this.shapes = new BoundedCache<>("sqlShapes", maxStatements, 0);
+        log.info("JDBC statement timing enabled={} slowThreshold={} ms maxStatements={}",
+                enabled, slowThresholdMillis, maxStatements);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<String, Timer> timers = new LinkedHashMap<>();
+        Map<String, DistributionSummary> summaries = new LinkedHashMap<>();
+        for (String kind : KINDS) {
+            timers.put(kind, Timer.builder("dynamic.api.jdbc.statement")
+                    .description("JDBC statement execution and row fetch")
+                    .tag("kind", kind)
+                    .register(registry));
+            summaries.put(kind, DistributionSummary.builder("dynamic.api.jdbc.rows")
+                    .description("Rows returned or updated per JDBC statement")
+                    .baseUnit("rows")
+                    .tag("kind", kind)
+                    .register(registry));
+        }
+        statementTimers = Map.copyOf(timers);
+        rowSummaries = Map.copyOf(summaries);
+        acquireTimer = Timer.builder("dynamic.api.jdbc.acquire")
+                .description("Wait for a pooled JDBC connection")
+                .register(registry);
+    }
+
+    void recordAcquire(long nanos) {
+        Timer timer = acquireTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param nanos        time in execute and in fetching rows, not the caller's work in between
+     * @param rows         rows returned, or the update count of writes
+     * @param acquireNanos wait for the connection, charged to its first statement
+     */
+    void record(String sql, String parameters, long nanos, long rows, long acquireNanos) {
+        Shape shape = shapes.getIfPresent(sql);
+        if (shape == null) {
+            String normalized = normalize(sql);
+            shape = new Shape(normalized, kind(normalized));
+            shapes.put(sql, shape);
+        }
+        String statement = shape.statement();
+        String kind = shape.kind();
+
+        Aggregate aggregate = statements.get(statement);
+        if (aggregate == null && statements.size() < maxStatements) {
+            aggregate = statements.computeIfAbsent(statement, s -> new Aggregate(kind));
+        }
+        if (aggregate != null) {
+            aggregate.add(nanos, rows, acquireNanos, parameters);
+        } else {
+            untracked.increment();
+        }
+
+        if (slowThresholdNanos >= 0 && nanos >= slowThresholdNanos) {
+            slowLog.warn("{} ms | rows={} | acquire={} ms | params={} | {}",
+                    millis(nanos), rows, millis(acquireNanos), parameters, statement);
+        }
+
+        Timer timer = statementTimers.get(kind);
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            rowSummaries.get(kind).record(Math.max(rows, 0));
+        }
+    }
+
+    /** The n statements with the longest single execution ("max"), total time ("total") or mean ("mean"). */
+    public List<Map<String, Object>> slowest(int n, String by) {
+        Comparator<Map.Entry<String, Aggregate>> order = switch (by) {
+            case "total" -> Comparator.comparingLong(e -> e.getValue().totalNanos.sum());
+            case "mean" -> Comparator.comparingDouble(e -> e.getValue().meanNanos());
+            case "max" -> Comparator.comparingLong(e -> e.getValue().maxNanos.get());
+            default -> throw new IllegalArgumentException("by must be max, total or mean");
+        };
+
+        List<Map.Entry<String, Aggregate>> entries = new ArrayList<>(statements.entrySet());
+        entries.sort(order.reversed());
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Aggregate> entry : entries.subList(0, Math.min(n, entries.size()))) {
+            Aggregate aggregate = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("statement", entry.getKey());
+            row.put("kind", aggregate.kind);
+            row.put("count", aggregate.count.sum());
+            row.put("totalMs", millis(aggregate.totalNanos.sum()));
+            row.put("meanMs", millis((long) aggregate.meanNanos()));
+            row.put("maxMs", millis(aggregate.maxNanos.get()));
+            row.put("slowCount", aggregate.slowCount.sum());
+            row.put("rows", aggregate.rows.sum());
+            row.put("acquireMs", millis(aggregate.acquireNanos.sum()));
+            row.put("slowestParams", aggregate.slowestParameters);
+            result.add(row);
+        }
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("slowThresholdMs", slowThresholdNanos < 0 ? -1 : millis(slowThresholdNanos));
+        stats.put("statements", statements.size());
+        stats.put("maxStatements", maxStatements);
+        stats.put("untracked", untracked.sum());
+        stats.put("shapes", shapes.stats());
+        return stats;
+    }
+
+    public void reset() {
+        statements.clear();
+        untracked.reset();
+    }
+
+    /** SQL with literals replaced by ? and repeated placeholders / VALUES rows collapsed. */
+    public static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("?, ...");
+        normalized = REPEATED_ROWS.matcher(normalized).replaceAll("$1, ...");
+        return normalized.length() > MAX_SQL_LENGTH ? normalized.substring(0, MAX_SQL_LENGTH) + " ..." : normalized;
+    }
+
+    static String kind(String statement) {
+        if (statement.startsWith(TimedDataSource.METADATA_PREFIX)) {
+            return "metadata";
+        }
+        int space = statement.indexOf(' ');
+        String verb = (space < 0 ? statement : statement.substring(0, space)).toLowerCase(Locale.ROOT);
+        return switch (verb) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> verb;
+            default -> "other";
+        };
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private final class Aggregate {
+        private final String kind;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile String slowestParameters;
+
+        private Aggregate(String kind) {
+            this.kind = kind;
+        }
+
+        private void add(long nanos, long rowCount, long acquire, String parameters) {
+            count.increment();
+            totalNanos.add(nanos);
+            rows.add(Math.max(rowCount, 0));
+            acquireNanos.add(acquire);
+            if (slowThresholdNanos >= 0 && nanos >= slowThresholdNanos) {
+                slowCount.increment();
+            }
+            if (nanos > maxNanos.getAndAccumulate(nanos, Math::max)) {
+                slowestParameters = parameters;
+            }
+        }
+
+        private double meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement run on its connections and reports it to a {@link SqlStatementLog}:
+ * the time spent in execute and in fetching rows (not the caller's work between rows), the rows
+ * returned or updated, the types of the bind parameters, and the wait for the connection, which
+ * is charged to the first statement run on it. Result sets of {@link DatabaseMetaData} lookups
+ * are reported as "DatabaseMetaData.method(argument types)".
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    static final String METADATA_PREFIX = "DatabaseMetaData.";
+
+    private final SqlStatementLog statementLog;
+
+    public TimedDataSource(DataSource target, SqlStatementLog statementLog) {
+        super(target);
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        return timed(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return timed(connection, System.nanoTime() - start);
+    }
+
+    private Connection timed(Connection target, long acquireNanos) {
+        statementLog.recordAcquire(acquireNanos);
+        long[] pendingAcquire = { acquireNanos };
+
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class, result,
+                        new StatementHandler((Statement) result, (String) args[0], pendingAcquire));
+                case "prepareCall" -> proxy(CallableStatement.class, result,
+                        new StatementHandler((Statement) result, (String) args[0], pendingAcquire));
+                case "createStatement" -> proxy(Statement.class, result,
+                        new StatementHandler((Statement) result, null, pendingAcquire));
+                case "getMetaData" -> proxy(DatabaseMetaData.class, result, metaDataHandler((DatabaseMetaData) result, pendingAcquire));
+                default -> result;
+            };
+        });
+    }
+
+    private InvocationHandler metaDataHandler(DatabaseMetaData target, long[] pendingAcquire) {
+        return (proxy, method, args) -> {
+            if (method.getReturnType() != ResultSet.class) {
+                return invoke(target, method, args);
+            }
+            Execution execution = new Execution(METADATA_PREFIX + method.getName(), parameterTypes(args), pendingAcquire);
+            long start = System.nanoTime();
+            ResultSet resultSet = (ResultSet) invoke(target, method, args);
+            execution.nanos += System.nanoTime() - start;
+            return results(resultSet, execution);
+        };
+    }
+
+    // one statement: bind parameter types, batch size and the execution awaiting its results
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final long[] pendingAcquire;
+        private final List<String> parameters = new ArrayList<>();
+        private int batchSize;
+        private String batchSql;
+        private Execution open;
+
+        private StatementHandler(Statement target, String sql, long[] pendingAcquire) {
+            this.target = target;
+            this.sql = sql;
+            this.pendingAcquire = pendingAcquire;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery", "execute", "executeUpdate", "executeLargeUpdate" -> {
+                    return execute(method, args, args != null && args.length > 0 ? (String) args[0] : sql);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    return executeBatch(method, args);
+                }
+                case "getResultSet" -> {
+                    ResultSet resultSet = (ResultSet) TimedDataSource.invoke(target, method, args);
+                    return open == null || resultSet == null ? resultSet : results(resultSet, open);
+                }
+                case "addBatch" -> {
+                    batchSize++;
+                    if (args != null && batchSql == null) batchSql = (String) args[0];
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+                case "clearParameters" -> parameters.clear();
+                case "close" -> finish();
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bind(index, name, args[1]);
+                    }
+                }
+            }
+            return TimedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, String statementSql) throws Throwable {
+            finish();
+            Execution execution = new Execution(statementSql, parameters.toString(), pendingAcquire);
+            long start = System.nanoTime();
+            Object result = TimedDataSource.invoke(target, method, args);
+            execution.nanos += System.nanoTime() - start;
+
+            // a query is reported when its result set or the statement is closed
+            if (result instanceof ResultSet resultSet) {
+                open = execution;
+                return results(resultSet, execution);
+            }
+            if (Boolean.TRUE.equals(result)) {
+                open = execution;
+                return result;
+            }
+            execution.rows = result instanceof Number count ? count.longValue() : target.getUpdateCount();
+            execution.report();
+            return result;
+        }
+
+        private Object executeBatch(Method method, Object[] args) throws Throwable {
+            finish();
+            String statementSql = sql != null ? sql : batchSql;
+            Execution execution = new Execution(statementSql, parameters + " x" + batchSize, pendingAcquire);
+            batchSize = 0;
+            batchSql = null;
+
+            long start = System.nanoTime();
+            Object result = TimedDataSource.invoke(target, method, args);
+            execution.nanos += System.nanoTime() - start;
+
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) rows += Math.max(count, 0);
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) rows += Math.max(count, 0);
+            }
+            execution.rows = rows;
+            execution.report();
+            return result;
+        }
+
+        private void bind(int index, String setter, Object value) {
+            while (parameters.size() < index) {
+                parameters.add("?");
+            }
+            String type = setter.equals("setNull") || value == null ? "null"
+                    : setter.equals("setObject") ? value.getClass().getSimpleName()
+                    : setter.substring(3);
+            parameters.set(index - 1, type);
+        }
+
+        private void finish() {
+            if (open != null) {
+                open.report();
+                open = null;
+            }
+        }
+    }
+
+    private ResultSet results(ResultSet target, Execution execution) {
+        return proxy(ResultSet.class, target, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    Object hasRow = invoke(target, method, args);
+                    execution.nanos += System.nanoTime() - start;
+                    if (Boolean.TRUE.equals(hasRow)) execution.rows++;
+                    return hasRow;
+                }
+                case "close" -> {
+                    execution.report();
+                    return invoke(target, method, args);
+                }
+                default -> {
+                    return invoke(target, method, args);
+                }
+            }
+        });
+    }
+
+    private static String parameterTypes(Object[] args) {
+        List<String> types = new ArrayList<>();
+        if (args != null) {
+            for (Object arg : args) types.add(arg == null ? "null" : arg.getClass().getSimpleName());
+        }
+        return types.toString();
+    }
+
+    private final class Execution {
+        private final String sql;
+        private final String parameters;
+        private final long acquireNanos;
+        private long nanos;
+        private long rows;
+        private boolean reported;
+
+        private Execution(String sql, String parameters, long[] pendingAcquire) {
+            this.sql = sql == null ? "" : sql;
+            this.parameters = parameters;
+            this.acquireNanos = pendingAcquire[0];
+            pendingAcquire[0] = 0;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                statementLog.record(sql, parameters, nanos, rows, acquireNanos);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Timed[" + target + "]";
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.support.KeyHolder;
+
+/**
+ * {@link JdbcTemplate} charging statement execution, including reading and mapping the result,
+ * to the {@link RequestPhases.Phase#SQL SQL phase} of the current request. The overridden
+ * methods are the ones every query, update and batch of the template funnels into.
+ */
+public class TimedJdbcTemplate extends JdbcTemplate {
+
+    public TimedJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.execute(action));
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.execute(action));
+    }
+
+    @Override
+    public void execute(String sql) throws DataAccessException {
+        RequestPhases.time(RequestPhases.Phase.SQL, () -> {
+            super.execute(sql);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.execute(psc, action));
+    }
+
+    @Override
+    public <T> T execute(String sql, PreparedStatementCallback<T> action) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.execute(sql, action));
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.query(sql, rse));
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse)
+            throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.query(psc, pss, rse));
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.update(sql));
+    }
+
+    @Override
+    protected int update(PreparedStatementCreator psc, PreparedStatementSetter pss) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.update(psc, pss));
+    }
+
+    @Override
+    public int update(PreparedStatementCreator psc, KeyHolder generatedKeyHolder) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.update(psc, generatedKeyHolder));
+    }
+
+    @Override
+    public int[] batchUpdate(String... sql) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.batchUpdate(sql));
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+        return RequestPhases.time(RequestPhases.Phase.SQL, () -> super.batchUpdate(sql, pss));
+    }
+}
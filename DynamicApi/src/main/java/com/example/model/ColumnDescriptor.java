@@ -0,0 +1,116 @@
+package com.example.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable description of one table column with the flags the controller needs precomputed.
+ */
+public final class ColumnDescriptor {
+
+    private final int index;
+    private final String name;
+    private final String lowerName;
+    private final String typeName;
+    private final ColumnType type;
+    private final int size;
+    private final boolean nullable;
+    private final boolean autoIncrement;
+    private final boolean primaryKey;
+    private final boolean foreignKey;
+
+    private final boolean code;
+    private final boolean uniqueCode;
+    private final boolean timestamp;
+
+    private final Map<String, Object> view;
+
+    public ColumnDescriptor(int index, String name, String typeName, int size, boolean nullable,
+                            boolean autoIncrement, boolean primaryKey, boolean foreignKey) {
+        this.index = index;
+        this.name = name;
+        this.lowerName = name.toLowerCase();
+        this.typeName = typeName;
+        this.type = ColumnType.fromTypeName(typeName);
+        this.size = size;
+        this.nullable = nullable;
+        this.autoIncrement = autoIncrement;
+        this.primaryKey = primaryKey;
+        this.foreignKey = foreignKey;
+
+        this.code = lowerName.contains("code");
+        this.uniqueCode = lowerName.endsWith("_code");
+        this.timestamp = typeName.toLowerCase().contains("timestamp");
+
+        // shape returned by the /columns endpoint
+        Map<String, Object> col = new HashMap<>();
+        col.put("name", name);
+        col.put("type", typeName);
+        col.put("size", size);
+        col.put("nullable", nullable);
+        col.put("autoIncrement", autoIncrement);
+        col.put("primaryKey", primaryKey);
+        col.put("isForeignKey", foreignKey);
+        this.view = Collections.unmodifiableMap(col);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLowerName() {
+        return lowerName;
+    }
+
+    /** Normalized catalog type name, e.g. "varchar" or "timestamp with time zone". */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    public boolean isForeignKey() {
+        return foreignKey;
+    }
+
+    /** Name contains "code": value is stored and returned upper-cased. */
+    public boolean isCode() {
+        return code;
+    }
+
+    /** Name ends with "_code": value must be unique within the table. */
+    public boolean isUniqueCode() {
+        return uniqueCode;
+    }
+
+    public boolean isTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, Object> toMap() {
+        return view;
+    }
+}
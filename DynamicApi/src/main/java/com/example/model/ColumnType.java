@@ -0,0 +1,71 @@
+package com.example.model;
+
+import java.sql.Types;
+
+/**
+ * Column types the API treats differently, resolved once from the normalized catalog type name.
+ */
+public enum ColumnType {
+
+    SMALLINT(Types.SMALLINT),
+    INTEGER(Types.INTEGER),
+    BIGINT(Types.BIGINT),
+    NUMERIC(Types.NUMERIC),
+    DOUBLE(Types.DOUBLE),
+    REAL(Types.REAL),
+    BOOLEAN(Types.BOOLEAN),
+    DATE(Types.DATE),
+    TIMESTAMP(Types.TIMESTAMP),
+    TIMESTAMP_TZ(Types.TIMESTAMP_WITH_TIMEZONE),
+    TIME(Types.TIME),
+    TIME_TZ(Types.TIME_WITH_TIMEZONE),
+    JSON(Types.OTHER),
+    UUID(Types.OTHER),
+    CHAR(Types.CHAR),
+    VARCHAR(Types.VARCHAR),
+    TEXT(Types.VARCHAR),
+    OTHER(Types.VARCHAR);
+
+    private final int sqlType;
+
+    ColumnType(int sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    public boolean isTextual() {
+        return this == CHAR || this == VARCHAR || this == TEXT;
+    }
+
+    public boolean isTimestamp() {
+        return this == TIMESTAMP || this == TIMESTAMP_TZ;
+    }
+
+    public static ColumnType fromTypeName(String typeName) {
+        if (typeName == null) return OTHER;
+
+        return switch (typeName.toLowerCase()) {
+            case "smallint", "int2", "smallserial" -> SMALLINT;
+            case "integer", "int", "int4", "serial" -> INTEGER;
+            case "bigint", "int8", "bigserial" -> BIGINT;
+            case "numeric", "decimal" -> NUMERIC;
+            case "double precision", "float8", "double" -> DOUBLE;
+            case "real", "float4" -> REAL;
+            case "bool", "boolean" -> BOOLEAN;
+            case "date" -> DATE;
+            case "timestamp", "timestamp without time zone" -> TIMESTAMP;
+            case "timestamptz", "timestamp with time zone" -> TIMESTAMP_TZ;
+            case "time", "time without time zone" -> TIME;
+            case "timetz", "time with time zone" -> TIME_TZ;
+            case "json", "jsonb" -> JSON;
+            case "uuid" -> UUID;
+            case "char", "bpchar", "character" -> CHAR;
+            case "varchar", "character varying" -> VARCHAR;
+            case "text" -> TEXT;
+            default -> OTHER;
+        };
+    }
+}
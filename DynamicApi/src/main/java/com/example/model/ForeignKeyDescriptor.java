@@ -0,0 +1,70 @@
+package com.example.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable description of one imported foreign key column.
+ */
+public final class ForeignKeyDescriptor {
+
+    public static final String NO_DISPLAY_COLUMN = "NONE";
+
+    private final String fkColumn;
+    private final String pkTableSchema;
+    private final String pkTable;
+    private final String pkColumn;
+    private final String displayColumn;
+
+    public ForeignKeyDescriptor(String fkColumn, String pkTableSchema, String pkTable,
+                                String pkColumn, String displayColumn) {
+        this.fkColumn = fkColumn;
+        this.pkTableSchema = pkTableSchema;
+        this.pkTable = pkTable;
+        this.pkColumn = pkColumn;
+        this.displayColumn = displayColumn == null ? NO_DISPLAY_COLUMN : displayColumn;
+    }
+
+    public String getFkColumn() {
+        return fkColumn;
+    }
+
+    public String getPkTableSchema() {
+        return pkTableSchema;
+    }
+
+    public String getPkTable() {
+        return pkTable;
+    }
+
+    public String getPkColumn() {
+        return pkColumn;
+    }
+
+    public String getDisplayColumn() {
+        return displayColumn;
+    }
+
+    public boolean hasDisplayColumn() {
+        return !NO_DISPLAY_COLUMN.equalsIgnoreCase(displayColumn);
+    }
+
+    /** Display column, or the referenced PK when the parent table has none. */
+    public String getDisplayColumnOrPk() {
+        return hasDisplayColumn() ? displayColumn : pkColumn;
+    }
+
+    public String getQualifiedPkTable() {
+        return pkTableSchema + "." + pkTable;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> fk = new LinkedHashMap<>();
+        fk.put("fkColumn", fkColumn);
+        fk.put("pkTableSchema", pkTableSchema);
+        fk.put("pkTable", pkTable);
+        fk.put("pkColumn", pkColumn);
+        fk.put("displayColumn", displayColumn);
+        return fk;
+    }
+}
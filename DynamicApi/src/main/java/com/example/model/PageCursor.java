@@ -0,0 +1,74 @@
+package com.example.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Opaque keyset cursor: the sort column value and primary key value of the last row of a page,
+ * encoded as URL-safe base64 JSON.
+ */
+public final class PageCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String sortColumn;
+    private final String sortValue;
+    private final String keyValue;
+
+    public PageCursor(String sortColumn, String sortValue, String keyValue) {
+        this.sortColumn = sortColumn;
+        this.sortValue = sortValue;
+        this.keyValue = keyValue;
+    }
+
+    /** Sort column the cursor was built for, null when the page was ordered by primary key only. */
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    public String getKeyValue() {
+        return keyValue;
+    }
+
+    public String encode() {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("c", sortColumn);
+        body.put("s", sortValue);
+        body.put("k", keyValue);
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MAPPER.writeValueAsBytes(body));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor is not one produced by {@link #encode()}
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.trim());
+            Map<String, String> body = MAPPER.readValue(
+                    new String(json, StandardCharsets.UTF_8), new TypeReference<Map<String, String>>() {});
+
+            if (body.get("k") == null) {
+                throw new IllegalArgumentException("Cursor has no key value");
+            }
+            return new PageCursor(body.get("c"), body.get("s"), body.get("k"));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
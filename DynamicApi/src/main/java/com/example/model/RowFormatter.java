@@ -0,0 +1,130 @@
+package com.example.model;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Output formatting of the rows of one table, compiled once from its {@link TableDescriptor}:
+ * code columns are upper-cased and timestamps are rendered as {@code yyyy-MM-dd'T'HH:mm:ss}.
+ * Only the columns that need a change get a transformer; all other values pass through.
+ */
+public final class RowFormatter {
+
+    public static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final UnaryOperator<Object> UPPER_CASE = value -> value.toString().toUpperCase();
+
+    private static final UnaryOperator<Object> TIMESTAMP = value -> {
+        if (value instanceof Timestamp ts) {
+            return ts.toLocalDateTime().format(TIMESTAMP_FORMAT);
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return odt.toLocalDateTime().format(TIMESTAMP_FORMAT);
+        }
+        return value;
+    };
+
+    private final TableDescriptor descriptor;
+    private final String[] names;
+    private final UnaryOperator<Object>[] transformers;
+
+    @SuppressWarnings("unchecked")
+    RowFormatter(TableDescriptor descriptor) {
+        this.descriptor = descriptor;
+
+        List<String> columnNames = new ArrayList<>();
+        List<UnaryOperator<Object>> columnTransformers = new ArrayList<>();
+        for (ColumnDescriptor col : descriptor.getColumns()) {
+            UnaryOperator<Object> transformer = transformerOf(col);
+            if (transformer != null) {
+                columnNames.add(col.getName());
+                columnTransformers.add(transformer);
+            }
+        }
+        this.names = columnNames.toArray(new String[0]);
+        this.transformers = columnTransformers.toArray(transformerArray(0));
+    }
+
+    // arrays rather than lists keep the per-value lookups of the row loops plain index reads;
+    // generic arrays cannot be created directly, hence the unchecked cast
+    @SuppressWarnings("unchecked")
+    private static UnaryOperator<Object>[] transformerArray(int length) {
+        return (UnaryOperator<Object>[]) new UnaryOperator<?>[length];
+    }
+
+    // code wins over timestamp, as it always did for the read endpoints
+    private static UnaryOperator<Object> transformerOf(ColumnDescriptor col) {
+        if (col == null) return null;
+        if (col.isCode()) return UPPER_CASE;
+        if (col.isTimestamp()) return TIMESTAMP;
+        return null;
+    }
+
+    /**
+     * Formats a row read with all its columns keyed by column name. Only the columns that
+     * need a change are looked up, and their values are replaced in place.
+     */
+    public void formatInPlace(Map<String, Object> row) {
+        for (int i = 0; i < names.length; i++) {
+            Object value = row.get(names[i]);
+            if (value != null) {
+                row.replace(names[i], transformers[i].apply(value));
+            }
+        }
+    }
+
+    /**
+     * Transformer for the column with the given result set label, or null when its values are
+     * returned unchanged (or it is not a column of this table).
+     */
+    public UnaryOperator<Object> transformerFor(String columnLabel) {
+        return transformerOf(descriptor.getColumn(columnLabel));
+    }
+
+    /**
+     * Row mapper producing formatted rows. Columns are resolved from the first row's
+     * metadata, so use a new mapper per query.
+     */
+    public RowMapper<Map<String, Object>> newRowMapper() {
+        return new RowMapper<>() {
+            private String[] labels;
+            private UnaryOperator<Object>[] columnTransformers;
+
+            @Override
+            public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+                if (labels == null) {
+                    ResultSetMetaData md = rs.getMetaData();
+                    labels = new String[md.getColumnCount()];
+                    columnTransformers = transformerArray(labels.length);
+                    for (int i = 0; i < labels.length; i++) {
+                        labels[i] = JdbcUtils.lookupColumnName(md, i + 1);
+                        columnTransformers[i] = transformerFor(labels[i]);
+                    }
+                }
+
+                // sized up front so wide rows never rehash
+                Map<String, Object> row = new LinkedHashMap<>((int) (labels.length / 0.75f) + 1);
+                for (int i = 0; i < labels.length; i++) {
+                    Object value = JdbcUtils.getResultSetValue(rs, i + 1);
+                    if (value != null && columnTransformers[i] != null) {
+                        value = columnTransformers[i].apply(value);
+                    }
+                    row.put(labels[i], value);
+                }
+                return row;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, compiled metadata of one table: columns, keys, check constraints and
+ * lookups by column name. Built once per table and kept in the metadata cache.
+ */
+public final class TableDescriptor {
+
+    private final String schema;
+    private final String table;
+    private final List<ColumnDescriptor> columns;
+    private final List<String> primaryKeys;
+    private final List<ForeignKeyDescriptor> foreignKeys;
+    private final List<String> checkConstraintDefs;
+
+    private final Map<String, Integer> indexByName;
+    private final Map<String, ForeignKeyDescriptor> foreignKeyByColumn;
+    private final Map<String, Integer> columnTypes;
+    private final List<Map<String, Object>> columnMaps;
+    private final RowFormatter rowFormatter;
+
+    // parsed check values per column, filled on first use
+    private final Map<String, List<String>> checkValues = new ConcurrentHashMap<>();
+
+    public TableDescriptor(String schema, String table,
+                           List<ColumnDescriptor> columns,
+                           List<String> primaryKeys,
+                           List<ForeignKeyDescriptor> foreignKeys,
+                           List<String> checkConstraintDefs) {
+        this.schema = schema;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.primaryKeys = List.copyOf(primaryKeys);
+        this.foreignKeys = List.copyOf(foreignKeys);
+        this.checkConstraintDefs = List.copyOf(checkConstraintDefs);
+
+        Map<String, Integer> byName = new HashMap<>(columns.size() * 4);
+        Map<String, Integer> types = new HashMap<>(columns.size() * 2);
+        List<Map<String, Object>> maps = new ArrayList<>(columns.size());
+        for (ColumnDescriptor col : this.columns) {
+            byName.put(col.getName(), col.getIndex());
+            byName.putIfAbsent(col.getLowerName(), col.getIndex());
+            types.put(col.getName(), col.getType().getSqlType());
+            maps.add(col.toMap());
+        }
+        this.indexByName = Collections.unmodifiableMap(byName);
+        this.columnTypes = Collections.unmodifiableMap(types);
+        this.columnMaps = Collections.unmodifiableList(maps);
+
+        Map<String, ForeignKeyDescriptor> fkByColumn = new LinkedHashMap<>();
+        for (ForeignKeyDescriptor fk : this.foreignKeys) {
+            fkByColumn.putIfAbsent(fk.getFkColumn(), fk);
+        }
+        this.foreignKeyByColumn = Collections.unmodifiableMap(fkByColumn);
+
+        this.rowFormatter = new RowFormatter(this);
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getQualifiedName() {
+        return schema + "." + table;
+    }
+
+    public List<ColumnDescriptor> getColumns() {
+        return columns;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /** Columns in the shape returned by the /columns endpoint. */
+    public List<Map<String, Object>> getColumnMaps() {
+        return columnMaps;
+    }
+
+    public List<String> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    /** First primary key column, or null when the table has none. */
+    public String getPrimaryKey() {
+        return primaryKeys.isEmpty() ? null : primaryKeys.get(0);
+    }
+
+    public List<ForeignKeyDescriptor> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public ForeignKeyDescriptor getForeignKey(String fkColumn) {
+        return foreignKeyByColumn.get(fkColumn);
+    }
+
+    /** Column name to {@link java.sql.Types} constant. */
+    public Map<String, Integer> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /** Output formatting of this table's rows, built with the descriptor. */
+    public RowFormatter getRowFormatter() {
+        return rowFormatter;
+    }
+
+    public List<String> getCheckConstraintDefs() {
+        return checkConstraintDefs;
+    }
+
+    /**
+     * Position of the column, matched exactly first and then case-insensitively; -1 when unknown.
+     */
+    public int indexOf(String columnName) {
+        if (columnName == null) return -1;
+        Integer idx = indexByName.get(columnName);
+        if (idx == null) {
+            idx = indexByName.get(columnName.toLowerCase());
+        }
+        return idx == null ? -1 : idx;
+    }
+
+    public ColumnDescriptor getColumn(String columnName) {
+        int idx = indexOf(columnName);
+        return idx < 0 ? null : columns.get(idx);
+    }
+
+    public boolean hasColumn(String columnName) {
+        return indexOf(columnName) >= 0;
+    }
+
+    public List<String> getCheckValues(String columnName, Function<String, List<String>> parser) {
+        return checkValues.computeIfAbsent(columnName.toLowerCase(), parser);
+    }
+}
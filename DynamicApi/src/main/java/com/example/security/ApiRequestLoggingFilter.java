@@ -1,67 +1,99 @@
 package com.example.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.metrics.RequestPhases;
+
 import java.io.IOException;
 
+/**
+ * Access log: one key=value line per request, written once the response is done, to the
+ * "dynamic-api.access" logger. Besides method, uri, status, duration, user and ip it carries the
+ * phase timings and row count of dynamic CRUD requests, so it runs around the metrics filter.
+ */
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class ApiRequestLoggingFilter extends OncePerRequestFilter {
 
-	@Value("${jwt.secret}")
-    private String secretKey;
-	
-    private static final Logger logger = LoggerFactory.getLogger(ApiRequestLoggingFilter.class);
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private static final Logger logger = LoggerFactory.getLogger("dynamic-api.access");
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        logger.info(request.getRequestURI());
+        if (!logger.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            logger.info(accessLine(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                    System.nanoTime() - start));
         }
+    }
 
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
+    private String accessLine(HttpServletRequest request, int status, long nanos) {
         String query = request.getQueryString();
 
-        String username = "anonymous";
-        String authHeader = request.getHeader("Authorization");
+        StringBuilder line = new StringBuilder(192)
+                .append("method=").append(request.getMethod())
+                .append(" uri=").append(request.getRequestURI());
+        if (query != null) {
+            line.append('?').append(query);
+        }
+        line.append(" status=").append(status);
+        appendMillis(line.append(" ms="), nanos);
+        line.append(" user=").append(username(request))
+                .append(" ip=").append(IPUtil.getClientIp(request));
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            try {
-                String token = authHeader.substring(7);
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(secretKey.getBytes()) // same key as signing
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-                username = claims.getSubject(); // "sub" field = username
-            } catch (Exception e) {
-                logger.warn("Failed to parse JWT for request [{} {}]: {}", method, uri, e.getMessage());
+        if (request.getAttribute(RequestPhases.ATTRIBUTE) instanceof RequestPhases.Recording phases) {
+            for (RequestPhases.Phase phase : RequestPhases.Phase.values()) {
+                if (phases.entered(phase)) {
+                    appendMillis(line.append(' ').append(phase.tag()).append("_ms="), phases.nanos(phase));
+                }
+            }
+            if (phases.rows() >= 0) {
+                line.append(" rows=").append(phases.rows());
             }
         }
+        return line.toString();
+    }
 
-        // Log with username, ip, and API details
-        logger.info("API Request: user='{}', ip='{}', [{}] {}{}",
-                username,
-                ip,
-                method,
-                uri,
-                (query != null ? "?" + query : ""));
+    private String username(HttpServletRequest request) {
+        try {
+            // normally already verified by JwtFilter and read from the request attribute
+            Claims claims = jwtUtil.resolveClaims(request);
+            if (claims != null) {
+                return claims.getSubject(); // "sub" field = username
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to parse JWT for request [{} {}]: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        }
+        return "anonymous";
+    }
 
-        filterChain.doFilter(request, response);
+    // milliseconds with one decimal, without formatting a double
+    private static void appendMillis(StringBuilder line, long nanos) {
+        long tenths = nanos / 100_000;
+        line.append(tenths / 10).append('.').append(tenths % 10);
     }
 }
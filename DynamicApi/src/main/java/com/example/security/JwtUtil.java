@@ -3,22 +3,45 @@ package com.example.security;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.cache.BoundedCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secret;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes); // ensures >= 256-bit
+    /** Request attribute holding the verified {@link Claims} of the bearer token. */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // verified token -> claims, null when the cache is disabled
+    private final BoundedCache<String, Claims> claimsCache;
+
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.claims-cache.enabled:false}") boolean cacheEnabled,
+            @Value("${jwt.claims-cache.max-entries:10000}") int cacheMaxEntries) {
+
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)); // ensures >= 256-bit
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.claimsCache = cacheEnabled ? new BoundedCache<>("jwtClaims", cacheMaxEntries, 0) : null;
+        log.info("JWT claims cache enabled={} maxEntries={}", cacheEnabled, cacheMaxEntries);
     }
 
     public String generateToken(String username) {
@@ -26,18 +49,76 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
-}
 
+    /**
+     * Verifies the token and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        if (claimsCache == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+
+        Claims claims = claimsCache.getIfPresent(token);
+        if (claims != null) {
+            return claims;
+        }
 
+        claims = parser.parseClaimsJws(token).getBody();
+
+        // never keep a token past its own expiry
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            claimsCache.putWithExpiry(token, claims, System.nanoTime() + remainingMillis * 1_000_000L);
+        } else {
+            claimsCache.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Claims of the request's bearer token, verified at most once per request and kept in
+     * {@link #CLAIMS_ATTRIBUTE}. Returns null when there is no bearer token.
+     *
+     * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+     */
+    public Claims resolveClaims(HttpServletRequest request) {
+        Object cached = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (cached instanceof Claims claims) {
+            return claims;
+        }
+
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+
+        Claims claims = parseClaims(authHeader.substring(7));
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    /**
+     * Subject of the claims already resolved for this request, or the fallback when there are none.
+     */
+    public static String getUsername(HttpServletRequest request, String fallback) {
+        Object claims = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (claims instanceof Claims c && c.getSubject() != null) {
+            return c.getSubject();
+        }
+        return fallback;
+    }
+
+    public Map<String, Object> cacheStats() {
+        return claimsCache == null ? Map.of("name", "jwtClaims", "enabled", false) : claimsCache.stats();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the allowed values of a column from PostgreSQL check constraint definitions,
+ * e.g. {@code CHECK (status IN ('ACTIVE', 'INACTIVE'))} or {@code = ANY (ARRAY[...])}.
+ */
+public final class CheckConstraintParser {
+
+    // Handle ARRAY[...] or IN(...)
+    private static final Pattern VALUE_LIST = Pattern.compile("ARRAY\\[(.*?)\\]|IN\\s*\\((.*?)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TYPE_CAST = Pattern.compile("::[a-zA-Z_ ]+");
+
+    private CheckConstraintParser() {
+    }
+
+    public static List<String> parse(List<String> defs, String columnName) {
+        List<String> values = new ArrayList<>();
+        String column = columnName.toLowerCase();
+
+        for (String def : defs) {
+            if (def == null) continue;
+
+            if (def.toLowerCase().contains(column)) {
+                Matcher matcher = VALUE_LIST.matcher(def);
+
+                while (matcher.find()) {
+                    String raw = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                    if (raw == null) continue;
+
+                    String[] arr = raw.split(",");
+                    for (String item : arr) {
+                        String clean = TYPE_CAST.matcher(item).replaceAll("")
+                                .replace("(", "")
+                                .replace(")", "")
+                                .replace("'", "")
+                                .trim();
+
+                        if (!clean.isEmpty()) values.add(clean);
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.config.TablesDropdownConfig;
+
+/**
+ * Reports, for every *_code column validated for uniqueness, whether an index can serve the
+ * duplicate check, and the CREATE INDEX statement for the ones that have none. In the default
+ * "upper" match mode that is an expression index on UPPER(col); in "exact" mode any index
+ * leading with the column.
+ */
+@Service
+public class CodeIndexAdvisor {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeIndexAdvisor.class);
+
+    private static final int MAX_IDENTIFIER_BYTES = 63;
+
+    private static final String SQL = """
+        SELECT c.relname AS table_name,
+               a.attname AS column_name,
+               EXISTS (SELECT 1 FROM pg_index i
+                        WHERE i.indrelid = c.oid
+                          AND i.indexprs IS NOT NULL
+                          AND pg_get_expr(i.indexprs, i.indrelid) ~* ('upper\\(\\(?"?' || a.attname || '\\M')) AS has_upper_index,
+               EXISTS (SELECT 1 FROM pg_index i
+                        WHERE i.indrelid = c.oid
+                          AND i.indkey[0] = a.attnum) AS has_column_index
+        FROM pg_class c
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped
+        JOIN pg_type t ON t.oid = a.atttypid
+        WHERE n.nspname = ?
+          AND c.relkind IN ('r', 'p')
+          AND lower(a.attname) LIKE '%\\_code'
+          AND t.typcategory = 'S'
+        ORDER BY c.relname, a.attnum
+    """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TablesDropdownConfig dropdownConfig;
+
+    @Autowired
+    private RowValidationService rowValidationService;
+
+    @Value("${validation.code-index-advisor.on-startup:true}")
+    private boolean checkOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportOnStartup() {
+        if (!checkOnStartup) return;
+
+        try {
+            Map<String, Object> report = report();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> missing = (List<Map<String, Object>>) report.get("missing");
+            for (Map<String, Object> column : missing) {
+                log.warn("No index for duplicate check of {}.{}.{} -> {}",
+                        column.get("schema"), column.get("table"), column.get("column"), column.get("statement"));
+            }
+            log.info("Code index check: {} columns checked, {} without a usable index", report.get("checked"), missing.size());
+        } catch (Exception e) {
+            log.warn("Code index check skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks the code columns of every table exposed through the valid schemas.
+     */
+    public Map<String, Object> report() {
+        boolean exact = rowValidationService.isExactCodeMatch();
+
+        int checked = 0;
+        List<Map<String, Object>> missing = new ArrayList<>();
+
+        for (String schema : dropdownConfig.getValidSchemas()) {
+            Set<String> allowed = dropdownConfig.getAllowedTables(schema);
+            Set<String> excluded = dropdownConfig.getExcludedTables(schema);
+
+            List<Map<String, Object>> columns = jdbcTemplate.queryForList(SQL, schema);
+            for (Map<String, Object> column : columns) {
+                String table = (String) column.get("table_name");
+                if (!allowed.isEmpty() ? !allowed.contains(table) : excluded.contains(table)) continue;
+
+                checked++;
+                String colName = (String) column.get("column_name");
+                boolean indexed = Boolean.TRUE.equals(column.get(exact ? "has_column_index" : "has_upper_index"));
+                if (indexed) continue;
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("schema", schema);
+                entry.put("table", table);
+                entry.put("column", colName);
+                entry.put("statement", createIndexStatement(schema, table, colName, exact));
+                missing.add(entry);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("matchMode", exact ? "exact" : "upper");
+        report.put("checked", checked);
+        report.put("missing", missing);
+        return report;
+    }
+
+    static String createIndexStatement(String schema, String table, String column, boolean exact) {
+        return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + SqlIdentifiers.quote(indexName(table, column, exact))
+                + " ON " + SqlIdentifiers.quote(schema) + "." + SqlIdentifiers.quote(table)
+                + (exact ? " (" + SqlIdentifiers.quote(column) + ");" : " (UPPER(" + SqlIdentifiers.quote(column) + "));");
+    }
+
+    // PostgreSQL truncates names to 63 bytes, so two long names could end up as one index and
+    // IF NOT EXISTS would skip the second: longer names are cut and end in a hash of the full name
+    static String indexName(String table, String column, boolean exact) {
+        String name = "idx_" + table + "_" + column + (exact ? "" : "_upper");
+        if (utf8Length(name) <= MAX_IDENTIFIER_BYTES) {
+            return name;
+        }
+
+        String suffix = String.format("_%08x", name.hashCode());
+        String prefix = name;
+        while (utf8Length(prefix) + suffix.length() > MAX_IDENTIFIER_BYTES) {
+            prefix = prefix.substring(0, prefix.offsetByCodePoints(prefix.length(), -1));
+        }
+        return prefix + suffix;
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import com.example.cache.TableMetadataCache;
+import com.example.cache.TableVersions;
+import com.example.model.ForeignKeyDescriptor;
+import com.example.model.TableDescriptor;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ETags for the read endpoints, derived from versions instead of the response body, so a
+ * matching If-None-Match is answered with 304 before any query runs or JSON is written.
+ * Metadata ETags follow the {@link TableMetadataCache} load version, data ETags the
+ * {@link TableVersions} write version of the table. Both include the instance id: versions are
+ * counted per node, and behind a load balancer a tag of another node simply never matches.
+ * <p>
+ * Writes that bypass the API are not seen by the data versions, nor, with the local invalidation
+ * bus, writes on other nodes. Data and fk-values tags therefore also carry the current epoch of
+ * http.etag.data-epoch-seconds, so such a write is answered with 304 for at most one epoch;
+ * an epoch of 0 issues no data or fk-values tags. With http.etag.enabled=false no ETags are
+ * issued at all.
+ */
+@Service
+public class ConditionalGetService {
+
+    public enum Family { METADATA, DATA, FK_VALUES }
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private TableMetadataCache metadataCache;
+
+    @Value("${http.etag.enabled:true}")
+    private boolean enabled;
+
+    @Value("${http.etag.data-epoch-seconds:60}")
+    private long dataEpochSeconds;
+
+    @Value("${http.cache-control.metadata:private, no-cache}")
+    private String metadataCacheControl;
+
+    @Value("${http.cache-control.data:private, no-cache}")
+    private String dataCacheControl;
+
+    @Value("${http.cache-control.fk-values:private, no-cache}")
+    private String fkValuesCacheControl;
+
+    /** Tag of the metadata in the descriptor, null when its version is unknown. */
+    public String metadataETag(String schema, String table, TableDescriptor descriptor) {
+        long version = metadataCache.version(schema, table, descriptor);
+        return version < 0 ? null : "m-" + tableVersions.getInstanceId() + "-" + version;
+    }
+
+    /** Take it before reading: a write in between then only costs the client a refetch. */
+    public String dataETag(String schema, String table) {
+        if (dataEpochSeconds <= 0) return null;
+
+        return "d-" + tableVersions.getInstanceId() + "-" + tableVersions.dataVersion(schema, table)
+                + "-" + dataEpoch();
+    }
+
+    /** Options depend on the parent's rows and on the child's metadata (which column, display column). */
+    public String fkValuesETag(String schema, String table, TableDescriptor descriptor, ForeignKeyDescriptor fk) {
+        long metadataVersion = metadataCache.version(schema, table, descriptor);
+        if (metadataVersion < 0 || dataEpochSeconds <= 0) return null;
+
+        return "f-" + tableVersions.getInstanceId() + "-" + metadataVersion + "-"
+                + tableVersions.dataVersion(fk.getPkTableSchema(), fk.getPkTable()) + "-" + dataEpoch();
+    }
+
+    // changes every data-epoch-seconds, for the writes the data versions cannot see
+    private long dataEpoch() {
+        return System.currentTimeMillis() / (dataEpochSeconds * 1000L);
+    }
+
+    /**
+     * Sets ETag and Cache-Control of the family, and whether the client's copy is current; the
+     * status is already 304 then and the handler returns without a body.
+     */
+    public boolean notModified(NativeWebRequest request, Family family, String etag) {
+        if (!enabled || etag == null) return false;
+
+        String cacheControl = switch (family) {
+            case METADATA -> metadataCacheControl;
+            case DATA -> dataCacheControl;
+            case FK_VALUES -> fkValuesCacheControl;
+        };
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null && cacheControl != null && !cacheControl.isBlank()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -5,21 +5,24 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
 
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.PropertySource;
-import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import com.example.cache.TableMetadataCache;
+import com.example.config.TablesDropdownConfig;
+import com.example.metrics.RequestPhases;
+import com.example.model.ColumnDescriptor;
+import com.example.model.ForeignKeyDescriptor;
+import com.example.model.TableDescriptor;
+
 @Service
-@PropertySource("classpath:tables-dropdown.properties")
 public class DatabaseMetadataService {
 
     @Autowired
@@ -27,7 +30,13 @@ public class DatabaseMetadataService {
 
 
     @Autowired
-    private Environment env;
+    private TablesDropdownConfig dropdownConfig;
+
+    @Autowired
+    private TableMetadataCache metadataCache;
+
+    @Autowired
+    private ValidationPipeline validationPipeline;
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseMetadataService.class);
 
@@ -71,40 +80,154 @@ public class DatabaseMetadataService {
 
     public List<Map<String, Object>> getColumns(String schema, String table) throws SQLException {
 
-        long start = System.currentTimeMillis();
-        log.info("Fetching column metadata for {}.{}", schema, table);
-
         if (schema == null || schema.isBlank() || table == null || table.isBlank()) {
             log.warn("Invalid input: schema='{}' table='{}'", schema, table);
             return Collections.emptyList();
         }
 
-        List<Map<String, Object>> columns = new ArrayList<>();
+        return getTableDescriptor(schema, table).getColumnMaps();
+    }
 
-        try (Connection conn = Objects.requireNonNull(jdbcTemplate.getDataSource()).getConnection()) {
+    public List<String> getPrimaryKeys(String schema, String table) throws SQLException {
+        return getTableDescriptor(schema, table).getPrimaryKeys();
+    }
 
-            DatabaseMetaData meta = conn.getMetaData();
+    public List<ForeignKeyDescriptor> getForeignKeys(String schema, String table) throws SQLException {
+        return getTableDescriptor(schema, table).getForeignKeys();
+    }
+
+    /**
+     * Compiled metadata (columns, PKs, FKs, check constraints) of a table, served from
+     * {@link TableMetadataCache} and loaded from the catalog on a miss.
+     */
+    public TableDescriptor getTableDescriptor(String schema, String table) throws SQLException {
+        return RequestPhases.time(RequestPhases.Phase.METADATA,
+                () -> metadataCache.get(schema, table, this::loadTableDescriptor));
+    }
+
+    private TableDescriptor loadTableDescriptor(String schema, String table) throws SQLException {
+
+        long start = System.currentTimeMillis();
+        log.info("Fetching column metadata for {}.{}", schema, table);
+
+        List<String> pkCols;
+        List<ForeignKeyDescriptor> fks;
+        List<ColumnRow> columnRows;
+        List<String> checkDefs;
+
+        try {
+            // independent catalog reads, concurrent when the validation pipeline is enabled
+            List<Object> results = validationPipeline.all("metadata of " + schema + "." + table, List.of(
+                    () -> loadPrimaryKeys(schema, table),
+                    () -> loadForeignKeys(schema, table),
+                    () -> loadColumnRows(schema, table),
+                    () -> loadCheckConstraintDefs(schema, table)));
+
+            pkCols = castList(results.get(0));
+            fks = castList(results.get(1));
+            columnRows = castList(results.get(2));
+            checkDefs = castList(results.get(3));
+
+        } catch (Exception ex) {
+            log.error("Error reading columns for {}.{} : {}", schema, table, ex.getMessage(), ex);
+            throw ex;
+        }
+
+        log.debug(" Available PK columns for {}.{} => {}", schema, table, pkCols);
 
-            // --- Fetch PK ---
-            Set<String> pkCols = new HashSet<>();
-            try (ResultSet rs = meta.getPrimaryKeys(null, schema, table)) {
+        Set<String> fkCols = new HashSet<>();
+        for (ForeignKeyDescriptor fk : fks) {
+            fkCols.add(fk.getFkColumn());
+        }
+        log.debug("Available FK columns for {}.{} => {}", schema, table, fkCols);
+
+        List<ColumnDescriptor> columns = new ArrayList<>(columnRows.size());
+        for (ColumnRow row : columnRows) {
+            columns.add(new ColumnDescriptor(
+                    columns.size(),
+                    row.name,
+                    row.typeName,
+                    row.size,
+                    row.nullable,
+                    row.autoIncrement,
+                    pkCols.contains(row.name),
+                    fkCols.contains(row.name)));
+        }
+
+        log.info("Fetched {} columns for {}.{}", columns.size(), schema, table);
+        log.info("Metadata for {}.{} loaded in {} ms", schema, table, (System.currentTimeMillis() - start));
+
+        return new TableDescriptor(schema, table, columns, pkCols, fks, checkDefs);
+    }
+
+    /**
+     * Loads the descriptors of every table referenced by the given table's foreign keys, so
+     * that the foreign key checks find them cached. Only with the validation pipeline enabled,
+     * where the loads run concurrently; otherwise they are loaded on first use as before.
+     */
+    public void preloadParentDescriptors(TableDescriptor descriptor) throws SQLException {
+        if (!validationPipeline.isEnabled()) return;
+
+        Map<String, ForeignKeyDescriptor> parents = new LinkedHashMap<>();
+        for (ForeignKeyDescriptor fk : descriptor.getForeignKeys()) {
+            parents.putIfAbsent(fk.getQualifiedPkTable(), fk);
+        }
+        if (parents.isEmpty()) return;
+
+        List<Callable<?>> loads = new ArrayList<>();
+        for (ForeignKeyDescriptor fk : parents.values()) {
+            loads.add(() -> getTableDescriptor(fk.getPkTableSchema(), fk.getPkTable()));
+        }
+        validationPipeline.all("parent metadata of " + descriptor.getQualifiedName(), loads);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(Object value) {
+        return (List<T>) value;
+    }
+
+    private List<String> loadPrimaryKeys(String schema, String table) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) conn -> {
+            List<String> pkCols = new ArrayList<>();
+            try (ResultSet rs = conn.getMetaData().getPrimaryKeys(null, schema, table)) {
                 while (rs.next()) {
                     pkCols.add(rs.getString("COLUMN_NAME"));
                 }
             }
-            log.debug(" Available PK columns for {}.{} => {}", schema, table, pkCols);
+            return pkCols;
+        });
+    }
 
-            // --- Fetch FK ---
-            Set<String> fkCols = new HashSet<>();
-            try (ResultSet rs = meta.getImportedKeys(conn.getCatalog(), schema, table)) {
-                while (rs.next()) {
-                    fkCols.add(rs.getString("FKCOLUMN_NAME"));
-                }
-            }
-            log.debug("Available FK columns for {}.{} => {}", schema, table, fkCols);
+    private List<ForeignKeyDescriptor> loadForeignKeys(String schema, String table) {
+        return jdbcTemplate.execute((ConnectionCallback<List<ForeignKeyDescriptor>>) conn -> {
+            DatabaseMetaData meta = conn.getMetaData();
+            return "PostgreSQL".equalsIgnoreCase(meta.getDatabaseProductName())
+                    ? loadForeignKeysFromCatalog(schema, table)
+                    : loadForeignKeysFromMetaData(conn, meta, schema, table);
+        });
+    }
 
-            // --- Fetch Column Metadata ---
-            try (ResultSet rs = meta.getColumns(null, schema, table, "%")) {
+    // column as read from the catalog, before the PK / FK flags are known
+    private static final class ColumnRow {
+        final String name;
+        final String typeName;
+        final int size;
+        final boolean nullable;
+        final boolean autoIncrement;
+
+        ColumnRow(String name, String typeName, int size, boolean nullable, boolean autoIncrement) {
+            this.name = name;
+            this.typeName = typeName;
+            this.size = size;
+            this.nullable = nullable;
+            this.autoIncrement = autoIncrement;
+        }
+    }
+
+    private List<ColumnRow> loadColumnRows(String schema, String table) {
+        return jdbcTemplate.execute((ConnectionCallback<List<ColumnRow>>) conn -> {
+            List<ColumnRow> rows = new ArrayList<>();
+            try (ResultSet rs = conn.getMetaData().getColumns(null, schema, table, "%")) {
                 while (rs.next()) {
 
                     String colName = rs.getString("COLUMN_NAME");
@@ -124,73 +247,66 @@ public class DatabaseMetadataService {
                         default -> rawType;
                     };
 
-                    Map<String, Object> col = new HashMap<>();
-                    col.put("name", colName);
-                    col.put("type", normalizedType);
-                    col.put("size", rs.getInt("COLUMN_SIZE"));
-                    col.put("nullable", "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")));
-                    col.put("autoIncrement", "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")));
-                    col.put("primaryKey", pkCols.contains(colName));
-                    col.put("isForeignKey", fkCols.contains(colName));
-
-                    columns.add(col);
+                    rows.add(new ColumnRow(
+                            colName,
+                            normalizedType,
+                            rs.getInt("COLUMN_SIZE"),
+                            "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")),
+                            "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"))));
                 }
             }
-
-            log.info("Fetched {} columns for {}.{}", columns.size(), schema, table);
-
-        } catch (Exception ex) {
-            log.error("Error reading columns for {}.{} : {}", schema, table, ex.getMessage(), ex);
-            throw ex;
-        } finally {
-            log.info("getColumns({}.{}) completed in {} ms",
-                    schema, table, (System.currentTimeMillis() - start));
-        }
-
-        return columns;
+            return rows;
+        });
     }
 
-    public List<String> getPrimaryKeys(String schema, String table) throws SQLException {
-
-        log.debug("Fetching primary keys for {}.{}", schema, table);
-
-        List<String> pkCols = new ArrayList<>();
-
-        try (Connection conn = Objects.requireNonNull(jdbcTemplate.getDataSource()).getConnection()) {
 
-            DatabaseMetaData meta = conn.getMetaData();
-            ResultSet rs = meta.getPrimaryKeys(null, schema, table);
-
-            while (rs.next()) {
-                pkCols.add(rs.getString("COLUMN_NAME"));
-            }
-
-            log.info("Found {} PK columns for {}.{} -> {}", pkCols.size(), schema, table, pkCols);
-
-        } catch (Exception ex) {
-            log.error("Failed to fetch PK for {}.{} : {}", schema, table, ex.getMessage(), ex);
-            throw ex;
-        }
+    /**
+     * All FKs of a table together with the display column of each referenced table
+     * (first column containing "name_en" or "code"), in one catalog query.
+     */
+    private List<ForeignKeyDescriptor> loadForeignKeysFromCatalog(String schema, String table) {
+        String sql = """
+            SELECT a.attname  AS fk_column,
+                   pn.nspname AS pk_schema,
+                   pc.relname AS pk_table,
+                   pa.attname AS pk_column,
+                   (SELECT lower(da.attname)
+                      FROM pg_attribute da
+                     WHERE da.attrelid = c.confrelid
+                       AND da.attnum > 0
+                       AND NOT da.attisdropped
+                       AND (lower(da.attname) LIKE '%name_en%' OR lower(da.attname) LIKE '%code%')
+                     ORDER BY da.attnum
+                     LIMIT 1) AS display_column
+            FROM pg_constraint c
+            JOIN pg_class t ON t.oid = c.conrelid
+            JOIN pg_namespace n ON n.oid = t.relnamespace
+            JOIN pg_class pc ON pc.oid = c.confrelid
+            JOIN pg_namespace pn ON pn.oid = pc.relnamespace
+            CROSS JOIN LATERAL unnest(c.conkey, c.confkey) WITH ORDINALITY AS k(fk_attnum, pk_attnum, seq)
+            JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = k.fk_attnum
+            JOIN pg_attribute pa ON pa.attrelid = c.confrelid AND pa.attnum = k.pk_attnum
+            WHERE c.contype = 'f' AND n.nspname = ? AND t.relname = ?
+            ORDER BY pn.nspname, pc.relname, c.conname, k.seq
+        """;
 
-        return pkCols;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new ForeignKeyDescriptor(
+                rs.getString("fk_column"),
+                rs.getString("pk_schema"),
+                rs.getString("pk_table"),
+                rs.getString("pk_column"),
+                rs.getString("display_column")), schema, table);
     }
 
-
     //Exact
 
-    public List<Map<String, Object>> getForeignKeys(String schema, String table) throws SQLException {
-        List<Map<String, Object>> fks = new ArrayList<>();
-        try (Connection conn = Objects.requireNonNull(jdbcTemplate.getDataSource()).getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
-            ResultSet rs = metaData.getImportedKeys(conn.getCatalog(), schema, table);
+    // Fallback for databases without pg_catalog (e.g. H2 in tests)
+    private List<ForeignKeyDescriptor> loadForeignKeysFromMetaData(Connection conn, DatabaseMetaData metaData,
+                                                                   String schema, String table) throws SQLException {
+        List<ForeignKeyDescriptor> fks = new ArrayList<>();
+        try (ResultSet rs = metaData.getImportedKeys(conn.getCatalog(), schema, table)) {
 
             while (rs.next()) {
-                Map<String, Object> fk = new HashMap<>();
-                fk.put("fkColumn", rs.getString("FKCOLUMN_NAME"));
-                fk.put("pkTableSchema", rs.getString("PKTABLE_SCHEM"));
-                fk.put("pkTable", rs.getString("PKTABLE_NAME"));
-                fk.put("pkColumn", rs.getString("PKCOLUMN_NAME"));
-
                 // 🔍 Identify display columns for referenced table
                 List<String> displayCols = new ArrayList<>();
                 try (ResultSet cols = metaData.getColumns(conn.getCatalog(), rs.getString("PKTABLE_SCHEM"), rs.getString("PKTABLE_NAME"), "%")) {
@@ -202,16 +318,14 @@ public class DatabaseMetadataService {
                         	 displayCols.add(colName);
                         }
                     }
-                    if(!displayCols.isEmpty()) {
-                    	fk.put("displayColumn", displayCols.get(0));
-                    }else {
-                    	fk.put("displayColumn", "NONE");
-                    }
-
                 }
-                //fk.put("displayColumns", displayCols);
 
-                fks.add(fk);
+                fks.add(new ForeignKeyDescriptor(
+                        rs.getString("FKCOLUMN_NAME"),
+                        rs.getString("PKTABLE_SCHEM"),
+                        rs.getString("PKTABLE_NAME"),
+                        rs.getString("PKCOLUMN_NAME"),
+                        displayCols.isEmpty() ? ForeignKeyDescriptor.NO_DISPLAY_COLUMN : displayCols.get(0)));
             }
         }
         return fks;
@@ -256,23 +370,12 @@ public class DatabaseMetadataService {
 
 
     public Map<String, Integer> getColumnTypes(String schema, String table) {
-        String sql = """
-            SELECT column_name, data_type
-            FROM information_schema.columns
-            WHERE table_schema = ? AND table_name = ?
-        """;
-
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, schema, table);
-
-        Map<String, Integer> columnTypes = new HashMap<>();
-        for (Map<String, Object> row : rows) {
-            String columnName = (String) row.get("column_name");
-            String dataType = (String) row.get("data_type");
-
-            int sqlType = mapPostgresTypeToSqlType(dataType);
-            columnTypes.put(columnName, sqlType);
+        try {
+            return getTableDescriptor(schema, table).getColumnTypes();
+        } catch (SQLException ex) {
+            log.error("Failed to fetch column types for {}.{} : {}", schema, table, ex.getMessage(), ex);
+            return Collections.emptyMap();
         }
-        return columnTypes;
     }
 
     public List<Map<String, Object>> getColumnInfo(String schema, String table) {
@@ -304,38 +407,17 @@ public class DatabaseMetadataService {
     }
 
 
-    private int mapPostgresTypeToSqlType(String pgType) {
-        return switch (pgType) {
-            case "integer" -> java.sql.Types.INTEGER;
-            case "bigint" -> java.sql.Types.BIGINT;
-            case "numeric", "decimal" -> java.sql.Types.NUMERIC;
-            case "double precision" -> java.sql.Types.DOUBLE;
-            case "real" -> java.sql.Types.REAL;
-            case "boolean" -> java.sql.Types.BOOLEAN;
-            case "date" -> java.sql.Types.DATE;
-            case "timestamp without time zone", "timestamp with time zone" -> java.sql.Types.TIMESTAMP;
-            case "character varying", "varchar", "text" -> java.sql.Types.VARCHAR;
-            default -> java.sql.Types.VARCHAR; // fallback
-        };
-    }
-
     public List<String> getAllSchemas() {
         log.info("Fetching all schemas from configuration");
 
         try {
-            String schemas = env.getProperty("valid.schema.list");
+            List<String> schemaList = dropdownConfig.getValidSchemas();
 
-            if (schemas == null || schemas.isBlank()) {
+            if (schemaList.isEmpty()) {
                 log.warn("No schemas found in property: valid.schema.list");
                 return Collections.emptyList();
             }
 
-            List<String> schemaList = Arrays.stream(schemas.split(","))
-                    .map(String::trim)
-                    .filter(fetchedSchemas -> !fetchedSchemas.isEmpty())
-                    .distinct()
-                    .collect(Collectors.toUnmodifiableList()); // 🔥 immutable list (safer)
-
             log.info("Schemas fetched successfully: {}", schemaList);
 
             return schemaList;
@@ -349,25 +431,20 @@ public class DatabaseMetadataService {
 
     public List<String> getTablesBySchema(String schema) {
 
-        log.info("Fetching tables for schema: " + schema);
+        log.info("Fetching tables for schema: {}", schema);
 
         // Fetch all tables for given schema
         String sql = "SELECT table_name FROM information_schema.tables WHERE table_schema = ? ORDER BY table_name";
         List<String> allTables = jdbcTemplate.queryForList(sql, new Object[]{schema}, String.class);
 
         // Check if there's a whitelist defined
-        log.info("All tables before filtering: " + allTables);
+        log.debug("All tables before filtering: {}", allTables);
 
-        String allowedList = env.getProperty("allowed.tables." + schema, "").trim();
+        Set<String> allowed = dropdownConfig.getAllowedTables(schema);
 
-        log.info("Allowed tables: " + allowedList);
-
-        if (!allowedList.isEmpty()) {
-            List<String> allowed = Arrays.stream(allowedList.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .toList();
+        log.debug("Allowed tables: {}", allowed);
 
+        if (!allowed.isEmpty()) {
             // return only allowed tables
             return allTables.stream()
                     .filter(allowed::contains)
@@ -375,13 +452,8 @@ public class DatabaseMetadataService {
         }
 
         //  Otherwise, check for blacklist
-        String excludeList = env.getProperty("exclude.tables." + schema, "").trim();
-        if (!excludeList.isEmpty()) {
-            List<String> excluded = Arrays.stream(excludeList.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .toList();
-
+        Set<String> excluded = dropdownConfig.getExcludedTables(schema);
+        if (!excluded.isEmpty()) {
             // return all except excluded
             return allTables.stream()
                     .filter(t -> !excluded.contains(t))
@@ -394,7 +466,6 @@ public class DatabaseMetadataService {
 
 
         public List<String> getCheckConstraintValues(String tableName, String columnName) {
-            List<String> values = new ArrayList<>();
 
             try {
                 // Extract schema + table
@@ -402,7 +473,19 @@ public class DatabaseMetadataService {
                 String schema = parts.length > 1 ? parts[0] : "public";
                 String table = parts.length > 1 ? parts[1] : tableName;
 
-                String sql = """
+                TableDescriptor descriptor = getTableDescriptor(schema, table);
+                return descriptor.getCheckValues(columnName,
+                        column -> CheckConstraintParser.parse(descriptor.getCheckConstraintDefs(), column));
+
+            } catch (Exception e) {
+                log.error("Failed to fetch check values for {}.{} : {}", tableName, columnName, e.getMessage(), e);
+            }
+
+            return new ArrayList<>();
+        }
+
+        private List<String> loadCheckConstraintDefs(String schema, String table) {
+            String sql = """
             SELECT pg_get_constraintdef(c.oid) AS constraint_def
             FROM pg_constraint c
             JOIN pg_class t ON c.conrelid = t.oid
@@ -410,41 +493,12 @@ public class DatabaseMetadataService {
             WHERE n.nspname = ? AND t.relname = ? AND c.contype = 'c'
         """;
 
-                List<String> defs = jdbcTemplate.queryForList(sql, new Object[]{schema, table}, String.class);
-
-                for (String def : defs) {
-                    if (def == null) continue;
-
-                    if (def.toLowerCase().contains(columnName.toLowerCase())) {
-                        // Handle ARRAY[...] or IN(...)
-                        Pattern pattern = Pattern.compile("ARRAY\\[(.*?)\\]|IN\\s*\\((.*?)\\)", Pattern.CASE_INSENSITIVE);
-                        Matcher matcher = pattern.matcher(def);
-
-                        while (matcher.find()) {
-                            String raw = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
-                            if (raw == null) continue;
-
-                            String[] arr = raw.split(",");
-                            for (String item : arr) {
-                                String clean = item
-                                        .replaceAll("::[a-zA-Z_ ]+", "")
-                                        .replace("(", "")
-                                        .replace(")", "")
-                                        .replace("'", "")
-                                        .trim();
-
-                                if (!clean.isEmpty()) values.add(clean);
-                            }
-                        }
-                    }
-                }
-
+            try {
+                return jdbcTemplate.queryForList(sql, new Object[]{schema, table}, String.class);
             } catch (Exception e) {
-                e.printStackTrace();
+                log.warn("Could not read check constraints for {}.{} : {}", schema, table, e.getMessage());
+                return Collections.emptyList();
             }
-
-//            System.out.println("✅ Final check values = " + values);
-            return values;
         }
 
 
@@ -0,0 +1,286 @@
+package com.example.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.cache.ParentKeyCache;
+import com.example.cache.SqlTemplateCache;
+import com.example.model.ColumnDescriptor;
+import com.example.model.ColumnType;
+import com.example.model.ForeignKeyDescriptor;
+import com.example.model.TableDescriptor;
+
+/**
+ * Set-based checks used by the write endpoints: foreign key existence and
+ * uniqueness of *_code columns, each answered with as few round trips as possible.
+ */
+@Service
+public class RowValidationService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseMetadataService metadataService;
+
+    @Autowired
+    private ParentKeyCache parentKeyCache;
+
+    @Autowired
+    private SqlTemplateCache sqlTemplates;
+
+    // upper: compare UPPER(col), needs an expression index on UPPER(col)
+    // exact: compare col itself, relies on codes being stored upper-cased (as every write path does)
+    //        and uses a plain index on the column
+    @Value("${validation.code-match-mode:upper}")
+    private String codeMatchMode;
+
+    private static final Logger log = LoggerFactory.getLogger(RowValidationService.class);
+
+    /**
+     * Checks every foreign key value of one row with a single query of {@code EXISTS} subqueries,
+     * one per referenced parent, skipping values already known to exist.
+     *
+     * @return the foreign keys whose value was not found in the parent table, in the given order
+     */
+    public List<ForeignKeyDescriptor> findMissingParents(Map<ForeignKeyDescriptor, String> valuesByFk) throws SQLException {
+        List<ForeignKeyDescriptor> pending = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        List<String> shape = new ArrayList<>();
+
+        for (Map.Entry<ForeignKeyDescriptor, String> entry : valuesByFk.entrySet()) {
+            ForeignKeyDescriptor fk = entry.getKey();
+            if (parentKeyCache.isKnown(fk, entry.getValue())) continue;
+
+            pending.add(fk);
+            params.add(ValueConverter.toBindValue(parentColumn(fk), entry.getValue()));
+            shape.add(fk.getQualifiedPkTable() + "." + fk.getPkColumn());
+        }
+
+        if (pending.isEmpty()) return Collections.emptyList();
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key("fk-exists", shape), () -> {
+            List<String> checks = new ArrayList<>();
+            for (ForeignKeyDescriptor fk : pending) {
+                checks.add("EXISTS (SELECT 1 FROM " + SqlIdentifiers.qualifiedParent(fk)
+                        + " WHERE " + SqlIdentifiers.quote(fk.getPkColumn()) + " = ?)");
+            }
+            return "SELECT " + String.join(", ", checks);
+        });
+
+        List<ForeignKeyDescriptor> missing = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            for (int i = 0; i < pending.size(); i++) {
+                ForeignKeyDescriptor fk = pending.get(i);
+                if (rs.getBoolean(i + 1)) {
+                    parentKeyCache.markExisting(fk, valuesByFk.get(fk));
+                } else {
+                    missing.add(fk);
+                }
+            }
+        }, params.toArray());
+
+        log.debug("FK check of {} parents -> {} missing", pending.size(), missing.size());
+        return missing;
+    }
+
+    /**
+     * Returns which of the given values exist in the referenced parent column,
+     * using a single {@code = ANY(?)} query for the values not already known to exist.
+     */
+    public Set<String> findExistingParents(ForeignKeyDescriptor fk, Collection<String> values) throws SQLException {
+        if (values.isEmpty()) return Collections.emptySet();
+
+        ColumnDescriptor parentColumn = parentColumn(fk);
+        boolean uuid = parentColumn != null && parentColumn.getType() == ColumnType.UUID;
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key("fk-any", fk.getQualifiedPkTable(), fk.getPkColumn()), () -> {
+            String column = SqlIdentifiers.quote(fk.getPkColumn());
+            return "SELECT " + column + " FROM " + SqlIdentifiers.qualifiedParent(fk) + " WHERE " + column + " = ANY(?)";
+        });
+
+        Set<String> result = new HashSet<>();
+        List<String> distinct = new ArrayList<>();
+        for (String value : new LinkedHashSet<>(values)) {
+            if (parentKeyCache.isKnown(fk, value)) {
+                result.add(value);
+            } else {
+                distinct.add(value);
+            }
+        }
+        if (distinct.isEmpty()) return result;
+
+        List<String> found = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Array array = uuid
+                    ? con.createArrayOf("uuid", distinct.stream().map(UUID::fromString).toArray())
+                    : con.createArrayOf("varchar", distinct.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+
+        log.debug("FK check {} -> {} of {} values exist", fk.getQualifiedPkTable(), found.size(), distinct.size());
+
+        Set<String> existing = new HashSet<>();
+        for (String value : found) {
+            existing.add(value.toLowerCase());
+        }
+
+        for (String value : distinct) {
+            if (existing.contains(value.toLowerCase())) {
+                result.add(value);
+                parentKeyCache.markExisting(fk, value);
+            }
+        }
+        return result;
+    }
+
+    public boolean isExactCodeMatch() {
+        return "exact".equalsIgnoreCase(codeMatchMode);
+    }
+
+    // left side of a code comparison, the bound value is always upper-cased
+    private String codeExpression(String colName) {
+        String column = SqlIdentifiers.quote(colName);
+        return isExactCodeMatch() ? column : "UPPER(" + column + ")";
+    }
+
+    private ColumnDescriptor parentColumn(ForeignKeyDescriptor fk) throws SQLException {
+        return metadataService
+                .getTableDescriptor(fk.getPkTableSchema(), fk.getPkTable())
+                .getColumn(fk.getPkColumn());
+    }
+
+    /**
+     * Checks every unique code column of one row with a single query of {@code EXISTS} subqueries.
+     *
+     * @param codes     column name to upper-cased value
+     * @param excludeId primary key value of the row being updated, null on insert
+     * @return the columns whose value is already used by another row, in the given order
+     */
+    public List<String> findDuplicateCodes(TableDescriptor descriptor, Map<String, String> codes, String excludeId) {
+        if (codes.isEmpty()) return Collections.emptyList();
+
+        String pk = descriptor.getPrimaryKey();
+        boolean exclude = excludeId != null && pk != null;
+        Object pkValue = exclude ? ValueConverter.toBindValue(descriptor.getColumn(pk), excludeId) : null;
+
+        List<String> columns = new ArrayList<>(codes.keySet());
+        List<Object> params = new ArrayList<>();
+        for (String colName : columns) {
+            params.add(codes.get(colName));
+            if (exclude) params.add(pkValue);
+        }
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "code-exists", exclude, columns), () -> {
+            List<String> checks = new ArrayList<>();
+            for (String colName : columns) {
+                checks.add("EXISTS (SELECT 1 FROM " + SqlIdentifiers.qualified(descriptor) + " WHERE " + codeExpression(colName)
+                        + " = ?" + (exclude ? " AND " + SqlIdentifiers.quote(pk) + " <> ?" : "") + ")");
+            }
+            return "SELECT " + String.join(", ", checks);
+        });
+
+        List<String> duplicates = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            for (int i = 0; i < columns.size(); i++) {
+                if (rs.getBoolean(i + 1)) {
+                    duplicates.add(columns.get(i));
+                }
+            }
+        }, params.toArray());
+
+        return duplicates;
+    }
+
+    /**
+     * For every code column, returns which of the candidate (upper-cased) values already exist
+     * in the table. All columns are checked in one {@code UNION ALL} query.
+     */
+    public Map<String, Set<String>> findExistingCodes(TableDescriptor descriptor,
+                                                      Map<String, Set<String>> candidatesByColumn) {
+        Map<String, Set<String>> existing = new HashMap<>();
+
+        List<String> columns = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : candidatesByColumn.entrySet()) {
+            if (!entry.getValue().isEmpty()) columns.add(entry.getKey());
+        }
+
+        if (columns.isEmpty()) return existing;
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "code-any", columns), () -> {
+            List<String> selects = new ArrayList<>();
+            for (String colName : columns) {
+                selects.add("SELECT " + (selects.size() + 1) + " AS col_idx, UPPER(" + SqlIdentifiers.quote(colName)
+                        + ") AS code_value FROM " + SqlIdentifiers.qualified(descriptor)
+                        + " WHERE " + codeExpression(colName) + " = ANY(?)");
+            }
+            return String.join(" UNION ALL ", selects);
+        });
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            for (int i = 0; i < columns.size(); i++) {
+                ps.setArray(i + 1, con.createArrayOf("varchar", candidatesByColumn.get(columns.get(i)).toArray()));
+            }
+            return ps;
+        }, rs -> {
+            String colName = columns.get(rs.getInt("col_idx") - 1);
+            existing.computeIfAbsent(colName, k -> new HashSet<>()).add(rs.getString("code_value"));
+        });
+
+        return existing;
+    }
+
+    /**
+     * For every code column, returns which of the candidate (upper-cased) values already exist,
+     * each with the key column values of the rows holding it, in one {@code UNION ALL} query.
+     * Used by upsert, where the row named by its key may keep its own code.
+     */
+    public Map<String, Map<String, Set<String>>> findCodeOwners(TableDescriptor descriptor,
+                                                                Map<String, Set<String>> candidatesByColumn,
+                                                                String keyColumn) {
+        Map<String, Map<String, Set<String>>> owners = new HashMap<>();
+
+        List<String> columns = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : candidatesByColumn.entrySet()) {
+            if (!entry.getValue().isEmpty()) columns.add(entry.getKey());
+        }
+
+        if (columns.isEmpty()) return owners;
+
+        String sql = sqlTemplates.get(SqlTemplateCache.key(descriptor.getQualifiedName(), "code-owner", keyColumn, columns), () -> {
+            List<String> selects = new ArrayList<>();
+            for (String colName : columns) {
+                selects.add("SELECT " + (selects.size() + 1) + " AS col_idx, UPPER(" + SqlIdentifiers.quote(colName)
+                        + ") AS code_value, CAST(" + SqlIdentifiers.quote(keyColumn) + " AS varchar) AS key_value FROM "
+                        + SqlIdentifiers.qualified(descriptor) + " WHERE " + codeExpression(colName) + " = ANY(?)");
+            }
+            return String.join(" UNION ALL ", selects);
+        });
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            for (int i = 0; i < columns.size(); i++) {
+                ps.setArray(i + 1, con.createArrayOf("varchar", candidatesByColumn.get(columns.get(i)).toArray()));
+            }
+            return ps;
+        }, rs -> {
+            String colName = columns.get(rs.getInt("col_idx") - 1);
+            owners.computeIfAbsent(colName, k -> new HashMap<>())
+                    .computeIfAbsent(rs.getString("code_value"), k -> new HashSet<>())
+                    .add(rs.getString("key_value"));
+        });
+
+        return owners;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+/**
+ * Builds the SQL of the dynamic search endpoint from its query parameters. Every parameter
+ * except {@code sort}, {@code limit} and {@code fields} is a filter on a column of the table;
+ * filters are ANDed, repeated parameters included. A filter value may start with an operator:
+ * <pre>
+ *   col=v              col = v           (eq:v when v itself starts with an operator)
+ *   col=&gt;=v &lt;=v &gt;v &lt;v !=v   comparisons
+ *   col=in:a,b,c       col IN (a, b, c)
+ *   col=between:a,b    col BETWEEN a AND b
+ *   col=prefix:v       col LIKE 'v%'     (can use a text_pattern_ops index)
+ *   col=is:null        col IS NULL       (is:notnull for IS NOT NULL)
+ *   or.g.col=v         filters sharing the group g are ORed, the group is ANDed with the rest
+ *   sort=col[,desc]    repeatable;  limit=n;  fields=a,b,c
+ * </pre>
+ * Values are typed from the cached column metadata. Code columns are compared upper-cased,
+ * through UPPER(col) or, with exact code matching, on the column itself so a plain index is used.
+ * An unknown column or a malformed value is rejected with an {@link IllegalArgumentException};
+ * identifiers in the SQL are the quoted catalog names of the descriptor. The {@link Query#getShape()
+ * shape} names the columns and operators without the values, so the SQL text can be cached per shape.
+ */
+public final class SearchQueryBuilder {
+
+    private static final String OR_PREFIX = "or.";
+
+    private SearchQueryBuilder() {
+    }
+
+    /**
+     * @param exactCodeMatch compare code columns directly instead of through UPPER(col)
+     * @param maxLimit       ceiling of the limit parameter, 0 for none
+     */
+    public static Query build(TableDescriptor descriptor, Map<String, List<String>> params,
+                              boolean exactCodeMatch, int maxLimit) {
+
+        List<String> selected = new ArrayList<>();
+        List<String> orderBy = new ArrayList<>();
+        List<String> orderShape = new ArrayList<>();
+        Integer limit = null;
+
+        List<Condition> conditions = new ArrayList<>();
+        Map<String, List<Condition>> orGroups = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            String key = entry.getKey();
+
+            switch (key) {
+                case "fields" -> entry.getValue().forEach(fields -> addFields(descriptor, fields, selected));
+                case "sort" -> entry.getValue().forEach(sort -> {
+                    String term = orderTerm(descriptor, sort);
+                    orderBy.add(term);
+                    orderShape.add(term);
+                });
+                case "limit" -> limit = parseLimit(entry.getValue().get(0), maxLimit);
+                default -> {
+                    String group = null;
+                    String columnName = key;
+                    if (key.startsWith(OR_PREFIX)) {
+                        int dot = key.indexOf('.', OR_PREFIX.length());
+                        if (dot < 0) {
+                            throw new IllegalArgumentException("OR filters are written or.<group>.<column>: " + key);
+                        }
+                        group = key.substring(OR_PREFIX.length(), dot);
+                        columnName = key.substring(dot + 1);
+                    }
+
+                    ColumnDescriptor column = descriptor.getColumn(columnName);
+                    if (column == null) {
+                        throw new IllegalArgumentException("Unknown column: " + columnName);
+                    }
+
+                    List<Condition> target = group == null ? conditions
+                            : orGroups.computeIfAbsent(group, g -> new ArrayList<>());
+                    for (String value : entry.getValue()) {
+                        target.add(condition(column, value, exactCodeMatch));
+                    }
+                }
+            }
+        }
+
+        for (List<Condition> group : orGroups.values()) {
+            List<String> alternatives = new ArrayList<>();
+            List<String> shapes = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            for (Condition condition : group) {
+                alternatives.add(condition.sql);
+                shapes.add(condition.shape);
+                values.addAll(condition.values);
+            }
+            conditions.add(new Condition("(" + String.join(" OR ", alternatives) + ")",
+                    "or(" + String.join(",", shapes) + ")", values));
+        }
+
+        StringBuilder shape = new StringBuilder(exactCodeMatch ? "exact" : "upper")
+                .append(";fields=").append(selected)
+                .append(";sort=").append(orderShape)
+                .append(";limit=").append(limit != null);
+        List<Object> values = new ArrayList<>();
+        for (Condition condition : conditions) {
+            shape.append(';').append(condition.shape);
+            values.addAll(condition.values);
+        }
+        if (limit != null) {
+            values.add(limit);
+        }
+
+        boolean limited = limit != null;
+        return new Query(shape.toString(), () -> sql(descriptor, selected, conditions, orderBy, limited), values);
+    }
+
+    private static String sql(TableDescriptor descriptor, List<String> selected, List<Condition> conditions,
+                              List<String> orderBy, boolean limited) {
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (selected.isEmpty()) {
+            sql.append("*");
+        } else {
+            for (int i = 0; i < selected.size(); i++) {
+                if (i > 0) sql.append(", ");
+                sql.append(SqlIdentifiers.quote(selected.get(i)));
+            }
+        }
+        sql.append(" FROM ").append(SqlIdentifiers.qualified(descriptor));
+
+        if (!conditions.isEmpty()) {
+            List<String> where = new ArrayList<>();
+            for (Condition condition : conditions) {
+                where.add(condition.sql);
+            }
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        if (!orderBy.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        }
+        if (limited) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    /** Escapes LIKE wildcards, for the default backslash escape character. */
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Condition condition(ColumnDescriptor column, String raw, boolean exactCodeMatch) {
+        boolean code = column.isCode() && column.getType().isTextual();
+        String name = SqlIdentifiers.quote(column.getName());
+        String expression = code && !exactCodeMatch ? "UPPER(" + name + ")" : name;
+
+        if (raw.startsWith("in:")) {
+            List<Object> values = new ArrayList<>();
+            for (String value : raw.substring(3).split(",")) {
+                if (!value.isBlank()) values.add(bind(column, value.trim(), code));
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("in: needs at least one value for " + column.getName());
+            }
+            return new Condition(expression + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")",
+                    column.getName() + " in" + values.size(), values);
+        }
+        if (raw.startsWith("between:")) {
+            String[] bounds = raw.substring(8).split(",", -1);
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("between: needs two values for " + column.getName());
+            }
+            return new Condition(expression + " BETWEEN ? AND ?", column.getName() + " between",
+                    List.of(bind(column, bounds[0].trim(), code), bind(column, bounds[1].trim(), code)));
+        }
+        if (raw.startsWith("prefix:")) {
+            String prefix = raw.substring(7);
+            if (code) prefix = prefix.toUpperCase();
+            String target = column.getType().isTextual() ? expression : "CAST(" + name + " AS varchar)";
+            return new Condition(target + " LIKE ?", column.getName() + " prefix", List.of(escapeLike(prefix) + "%"));
+        }
+        if (raw.startsWith("is:")) {
+            String test = raw.substring(3).toLowerCase();
+            if (!test.equals("null") && !test.equals("notnull")) {
+                throw new IllegalArgumentException("is: must be null or notnull for " + column.getName());
+            }
+            return new Condition(name + (test.equals("null") ? " IS NULL" : " IS NOT NULL"), column.getName() + " " + test, List.of());
+        }
+
+        String operator = "=";
+        String value = raw;
+        if (raw.startsWith("eq:")) { value = raw.substring(3); }
+        else if (raw.startsWith(">=")) { operator = ">="; value = raw.substring(2); }
+        else if (raw.startsWith("<=")) { operator = "<="; value = raw.substring(2); }
+        else if (raw.startsWith("!=")) { operator = "!="; value = raw.substring(2); }
+        else if (raw.startsWith(">")) { operator = ">"; value = raw.substring(1); }
+        else if (raw.startsWith("<")) { operator = "<"; value = raw.substring(1); }
+
+        return new Condition(expression + " " + operator + " ?", column.getName() + " " + operator, List.of(bind(column, value, code)));
+    }
+
+    private static Object bind(ColumnDescriptor column, String value, boolean code) {
+        if (code) return value.toUpperCase();
+        try {
+            return ValueConverter.toBindValue(column, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for column " + column.getName());
+        }
+    }
+
+    private static void addFields(TableDescriptor descriptor, String fields, List<String> selected) {
+        for (String field : fields.split(",")) {
+            ColumnDescriptor column = descriptor.getColumn(field.trim());
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown column: " + field.trim());
+            }
+            if (!selected.contains(column.getName())) {
+                selected.add(column.getName());
+            }
+        }
+    }
+
+    private static String orderTerm(TableDescriptor descriptor, String sort) {
+        String[] parts = sort.split(",");
+        ColumnDescriptor column = descriptor.getColumn(parts[0].trim());
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown sort column: " + parts[0].trim());
+        }
+        boolean descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+        return SqlIdentifiers.quote(column.getName()) + (descending ? " DESC" : " ASC");
+    }
+
+    private static int parseLimit(String value, int maxLimit) {
+        int limit;
+        try {
+            limit = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a number");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        return maxLimit > 0 ? Math.min(limit, maxLimit) : limit;
+    }
+
+    private static final class Condition {
+        private final String sql;
+        private final String shape;
+        private final List<Object> values;
+
+        private Condition(String sql, String shape, List<Object> values) {
+            this.sql = sql;
+            this.shape = shape;
+            this.values = values;
+        }
+    }
+
+    /** SQL text, built on demand, its shape and its bind values, in order. */
+    public static final class Query {
+        private final String shape;
+        private final Supplier<String> sql;
+        private final List<Object> params;
+
+        private Query(String shape, Supplier<String> sql, List<Object> params) {
+            this.shape = shape;
+            this.sql = sql;
+            this.params = List.copyOf(params);
+        }
+
+        /** Columns, operators and value counts of the query; equal shapes give equal SQL text. */
+        public String getShape() {
+            return shape;
+        }
+
+        public String getSql() {
+            return sql.get();
+        }
+
+        public List<Object> getParams() {
+            return params;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.service;
+
+import com.example.model.ForeignKeyDescriptor;
+import com.example.model.TableDescriptor;
+
+/**
+ * Quoting of identifiers taken from the catalog metadata. Names in a loaded descriptor are the
+ * exact catalog names, so quoting them is always correct and keeps reserved words and mixed
+ * case working; names typed by a client must be resolved through the metadata first.
+ */
+public final class SqlIdentifiers {
+
+    private SqlIdentifiers() {
+    }
+
+    public static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    public static String qualified(TableDescriptor descriptor) {
+        return quote(descriptor.getSchema()) + "." + quote(descriptor.getTable());
+    }
+
+    public static String qualifiedParent(ForeignKeyDescriptor fk) {
+        return quote(fk.getPkTableSchema()) + "." + quote(fk.getPkTable());
+    }
+}
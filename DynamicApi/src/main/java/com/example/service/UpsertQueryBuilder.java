@@ -0,0 +1,96 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.example.model.TableDescriptor;
+
+/**
+ * SQL of the upsert endpoint, a multi-row INSERT ... ON CONFLICT (target) DO UPDATE ... RETURNING,
+ * and the matching of the returned rows back to the request rows. Each returned row carries an
+ * extra flag telling an inserted row from an updated one, removed again while matching.
+ */
+public final class UpsertQueryBuilder {
+
+    // extra RETURNING column telling an inserted row from an updated one
+    static final String INSERTED_COLUMN = "upsert_inserted";
+
+    private UpsertQueryBuilder() {
+    }
+
+    /**
+     * The inserted flag is {@code xmax = 0}, true only for a row version created by this insert,
+     * not for one it updated.
+     *
+     * @param insertCols   columns of each VALUES row, one placeholder each
+     * @param updateCols   columns set from EXCLUDED when the row already exists
+     * @param modifiedCols audit columns set from trailing parameters after all rows
+     */
+    public static String sql(TableDescriptor descriptor, String targetName, List<String> insertCols,
+                             List<String> updateCols, List<String> modifiedCols, int rowCount) {
+
+        String placeholders = "(" + String.join(", ", Collections.nCopies(insertCols.size(), "?")) + ")";
+        String target = SqlIdentifiers.quote(targetName);
+
+        List<String> assignments = new ArrayList<>();
+        for (String colName : updateCols) {
+            String column = SqlIdentifiers.quote(colName);
+            assignments.add(column + " = EXCLUDED." + column);
+        }
+        for (String colName : modifiedCols) {
+            assignments.add(SqlIdentifiers.quote(colName) + " = ?");
+        }
+        if (assignments.isEmpty()) {
+            // still an update, so that RETURNING yields the existing row
+            assignments.add(target + " = EXCLUDED." + target);
+        }
+
+        return "INSERT INTO " + SqlIdentifiers.qualified(descriptor) +
+                " (" + insertCols.stream().map(SqlIdentifiers::quote).collect(Collectors.joining(", ")) + ") VALUES " +
+                String.join(", ", Collections.nCopies(rowCount, placeholders)) +
+                " ON CONFLICT (" + target + ") DO UPDATE SET " + String.join(", ", assignments) +
+                " RETURNING *, (xmax = 0) AS " + INSERTED_COLUMN;
+    }
+
+    /**
+     * Stores each returned row under the index of its request row, and whether it was inserted.
+     * Rows are matched by key value; rows sent without one (generated primary key) take the
+     * remaining returned rows in statement order.
+     */
+    public static void matchReturnedRows(List<Integer> chunk, List<Map<String, Object>> rows,
+                                         List<Map<String, Object>> returned, String targetName,
+                                         Map<Integer, Map<String, Object>> stored,
+                                         Map<Integer, Boolean> insertedByRow) {
+
+        Map<String, Map<String, Object>> byKey = new LinkedHashMap<>();
+        for (Map<String, Object> row : returned) {
+            Object value = row.get(targetName);
+            if (value != null) byKey.put(value.toString().toUpperCase(), row);
+        }
+
+        List<Integer> withoutKey = new ArrayList<>();
+        for (Integer idx : chunk) {
+            Object raw = rows.get(idx).get(targetName);
+            Map<String, Object> row = raw == null ? null : byKey.remove(raw.toString().trim().toUpperCase());
+            if (row == null) {
+                withoutKey.add(idx);
+            } else {
+                insertedByRow.put(idx, Boolean.TRUE.equals(row.remove(INSERTED_COLUMN)));
+                stored.put(idx, row);
+            }
+        }
+
+        Iterator<Map<String, Object>> remaining = byKey.values().iterator();
+        for (Integer idx : withoutKey) {
+            if (!remaining.hasNext()) break;
+            Map<String, Object> row = remaining.next();
+            insertedByRow.put(idx, Boolean.TRUE.equals(row.remove(INSERTED_COLUMN)));
+            stored.put(idx, row);
+        }
+    }
+}
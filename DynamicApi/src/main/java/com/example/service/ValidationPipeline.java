@@ -0,0 +1,191 @@
+package com.example.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.exception.ValidationTimeoutException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the independent steps of the write path (metadata reads, then foreign key and code
+ * checks) concurrently on a bounded executor, so a cold request waits for the slowest step
+ * instead of the sum. Opt-in: when disabled every step runs in order on the calling thread,
+ * exactly as before. Results and failures keep the order of the steps, so the error returned
+ * is the one the sequential path would have returned.
+ */
+@Service
+public class ValidationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationPipeline.class);
+
+    private final boolean enabled;
+    private final long stepTimeoutMillis;
+
+    // null when disabled
+    private final ThreadPoolExecutor executor;
+
+    public ValidationPipeline(
+            @Value("${validation.parallel.enabled:false}") boolean enabled,
+            @Value("${validation.parallel.threads:8}") int threads,
+            @Value("${validation.parallel.queue-capacity:200}") int queueCapacity,
+            @Value("${validation.parallel.step-timeout-ms:5000}") long stepTimeoutMillis) {
+
+        this.enabled = enabled;
+        this.stepTimeoutMillis = stepTimeoutMillis;
+
+        if (enabled) {
+            AtomicInteger count = new AtomicInteger();
+            // a full queue runs the step on the caller, which just degrades to the sequential path
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new PipelineThread(runnable, "validation-" + count.incrementAndGet()),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            this.executor = null;
+        }
+        log.info("Parallel validation enabled={} threads={} stepTimeout={}ms", enabled, threads, stepTimeoutMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs independent reads and returns their results in step order. The first step that
+     * throws cancels the others and its exception is rethrown.
+     *
+     * @throws ValidationTimeoutException when a step does not finish within the step timeout
+     */
+    public List<Object> all(String stage, List<Callable<?>> steps) throws SQLException {
+        List<Object> results = new ArrayList<>(steps.size());
+        if (runsInline(steps)) {
+            for (Callable<?> step : steps) {
+                results.add(call(step));
+            }
+            return results;
+        }
+
+        List<Future<?>> futures = submitAll(steps);
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(await(stage, i, futures));
+        }
+        return results;
+    }
+
+    /**
+     * Runs independent checks, where a null result means the check passed, and returns the
+     * failure of the first check in step order that failed (null when all passed). Once a check
+     * fails the checks after it are cancelled; the ones before it are still awaited because
+     * their failure takes precedence.
+     *
+     * @throws ValidationTimeoutException when a check does not finish within the step timeout
+     */
+    public <T> T firstFailure(String stage, List<Callable<T>> checks) throws SQLException {
+        if (runsInline(checks)) {
+            for (Callable<T> check : checks) {
+                T failure = call(check);
+                if (failure != null) return failure;
+            }
+            return null;
+        }
+
+        List<Future<?>> futures = submitAll(checks);
+        for (int i = 0; i < futures.size(); i++) {
+            @SuppressWarnings("unchecked")
+            T failure = (T) await(stage, i, futures);
+            if (failure != null) {
+                cancelFrom(futures, i + 1);
+                return failure;
+            }
+        }
+        return null;
+    }
+
+    // nothing to overlap, or already on a pipeline thread (waiting there for queued
+    // steps could exhaust the pool)
+    private boolean runsInline(List<?> steps) {
+        return executor == null || steps.size() < 2 || Thread.currentThread() instanceof PipelineThread;
+    }
+
+    private List<Future<?>> submitAll(List<? extends Callable<?>> steps) {
+        List<Future<?>> futures = new ArrayList<>(steps.size());
+        for (Callable<?> step : steps) {
+            FutureTask<?> task = new FutureTask<>(step);
+            futures.add(task);
+            executor.execute(task);
+        }
+        return futures;
+    }
+
+    private Object await(String stage, int index, List<Future<?>> futures) throws SQLException {
+        Future<?> future = futures.get(index);
+        try {
+            return future.get(stepTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelFrom(futures, 0);
+            log.warn("{}: step {} did not finish within {} ms", stage, index + 1, stepTimeoutMillis);
+            throw new ValidationTimeoutException(stage + " did not finish within " + stepTimeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            cancelFrom(futures, 0);
+            Thread.currentThread().interrupt();
+            throw new ValidationTimeoutException(stage + " was interrupted");
+        } catch (CancellationException e) {
+            throw new ValidationTimeoutException(stage + " was cancelled");
+        } catch (ExecutionException e) {
+            cancelFrom(futures, 0);
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static void cancelFrom(List<Future<?>> futures, int from) {
+        for (int i = from; i < futures.size(); i++) {
+            futures.get(i).cancel(true);
+        }
+    }
+
+    private static <T> T call(Callable<T> step) throws SQLException {
+        try {
+            return step.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static SQLException rethrow(Throwable cause) {
+        if (cause instanceof SQLException sqlEx) return sqlEx;
+        if (cause instanceof RuntimeException runtimeEx) throw runtimeEx;
+        if (cause instanceof Error error) throw error;
+        return new SQLException(cause.getMessage(), cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class PipelineThread extends Thread {
+        PipelineThread(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.service;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+import org.postgresql.util.PGobject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.RowFormatter;
+
+/**
+ * Converts request values into JDBC bind values of the column's type.
+ */
+public final class ValueConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(ValueConverter.class);
+
+    private ValueConverter() {
+    }
+
+    /**
+     * Value as written by insert / update: trimmed, code columns upper-cased, then typed.
+     */
+    public static Object convert(Object value, ColumnDescriptor column) {
+        // per column of every write: guarded, the varargs call allocates even when disabled
+        if (log.isDebugEnabled()) {
+            log.debug("Converting value '{}' to type '{}' for column '{}'", value, column.getTypeName(), column.getName());
+        }
+        if (value == null) return null;
+
+        String str = value.toString().trim();
+
+        // ⭐ Auto UPPERCASE for any "code" field
+        if (column.isCode()) {
+            str = str.toUpperCase();
+        }
+
+        switch (column.getType()) {
+            case BIGINT:
+            case INTEGER:
+            case SMALLINT:
+                return Long.valueOf(str);
+
+            case NUMERIC:
+                return new BigDecimal(str);
+
+            case DOUBLE:
+            case REAL:
+                return Double.valueOf(str);
+
+            case BOOLEAN:
+                return Boolean.valueOf(str);
+
+            case DATE:
+                return java.sql.Date.valueOf(str);
+
+            case UUID:
+                return toUuid(str);
+
+            case JSON:
+                try {
+                    PGobject jsonObject = new PGobject();
+                    jsonObject.setType("jsonb");
+
+                    if (str.startsWith("{") || str.startsWith("[") || str.equalsIgnoreCase("null")) {
+                        jsonObject.setValue(str);
+                    } else {
+                        jsonObject.setValue("\"" + str.replace("\"", "\\\"") + "\"");
+                    }
+
+                    return jsonObject;
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to convert value to JSONB: " + str, e);
+                }
+
+            case TIMESTAMP:
+            case TIMESTAMP_TZ:
+                try {
+                    String cleanedStr = str;
+
+                    int dotIndex = str.indexOf(".");
+                    if (dotIndex != -1) {
+                        cleanedStr = str.substring(0, dotIndex);
+                    }
+
+                    LocalDateTime ldt = LocalDateTime.parse(cleanedStr, RowFormatter.TIMESTAMP_FORMAT);
+                    return Timestamp.valueOf(ldt);
+                } catch (DateTimeParseException e) {
+                    return Timestamp.valueOf(str.replace("T", " "));
+                }
+
+            case TIME:
+            case TIME_TZ:
+                if (str.contains("+")) {
+                    return Time.valueOf(str.split("\\+")[0]);
+                } else {
+                    return Time.valueOf(str);
+                }
+
+            default:
+                return str; // fallback for varchar text
+        }
+    }
+
+    /**
+     * Typed bind value for a key or cursor component, without the code upper-casing of {@link #convert}.
+     */
+    public static Object toBindValue(ColumnDescriptor column, String value) {
+        if (value == null || column == null) return value;
+
+        return switch (column.getType()) {
+            case SMALLINT, INTEGER, BIGINT -> Long.valueOf(value);
+            case NUMERIC -> new BigDecimal(value);
+            case DOUBLE, REAL -> Double.valueOf(value);
+            case BOOLEAN -> Boolean.valueOf(value);
+            case DATE -> java.sql.Date.valueOf(value);
+            case TIMESTAMP, TIMESTAMP_TZ -> Timestamp.valueOf(value.replace("T", " "));
+            case UUID -> toUuid(value);
+            default -> value;
+        };
+    }
+
+    // a String bound to a uuid column is rejected by PostgreSQL; a malformed value is left
+    // as text so the database reports it like any other bad input
+    private static Object toUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Reports DDL on tables to the DynamicApi nodes over NOTIFY (channel dynamic_api_invalidation,
+-- payload db:DDL:schema.table), so they drop cached metadata and data of the table.
+-- Event triggers need a superuser. Safe to run repeatedly.
+
+CREATE OR REPLACE FUNCTION dynamic_api_notify_ddl() RETURNS event_trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    obj record;
+BEGIN
+    FOR obj IN SELECT * FROM pg_event_trigger_ddl_commands() WHERE object_type = 'table'
+    LOOP
+        PERFORM pg_notify('dynamic_api_invalidation',
+                'db:DDL:' || obj.schema_name || '.' || (SELECT relname FROM pg_class WHERE oid = obj.objid));
+    END LOOP;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION dynamic_api_notify_drop() RETURNS event_trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    obj record;
+BEGIN
+    FOR obj IN SELECT * FROM pg_event_trigger_dropped_objects()
+               WHERE object_type IN ('table', 'table column', 'table constraint')
+    LOOP
+        -- address_names is {schema, table[, column or constraint]}
+        PERFORM pg_notify('dynamic_api_invalidation',
+                'db:DDL:' || obj.address_names[1] || '.' || obj.address_names[2]);
+    END LOOP;
+END;
+$$;
+
+DROP EVENT TRIGGER IF EXISTS dynamic_api_ddl_end;
+CREATE EVENT TRIGGER dynamic_api_ddl_end ON ddl_command_end
+    EXECUTE FUNCTION dynamic_api_notify_ddl();
+
+DROP EVENT TRIGGER IF EXISTS dynamic_api_sql_drop;
+CREATE EVENT TRIGGER dynamic_api_sql_drop ON sql_drop
+    EXECUTE FUNCTION dynamic_api_notify_drop();
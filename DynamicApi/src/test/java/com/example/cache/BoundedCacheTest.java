@@ -0,0 +1,59 @@
+package com.example.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+	@Test
+	void evictsLeastRecentlyUsedEntry() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 2, 0);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.getIfPresent("a");
+		cache.put("c", "3");
+
+		assertEquals("1", cache.getIfPresent("a"));
+		assertNull(cache.getIfPresent("b"));
+		assertEquals("3", cache.getIfPresent("c"));
+		assertEquals(1, cache.getEvictions());
+	}
+
+	@Test
+	void expiredEntriesAreMisses() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0);
+		cache.putWithExpiry("a", "1", System.nanoTime() - 1);
+
+		assertNull(cache.getIfPresent("a"));
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	void invalidateIfRemovesMatchingKeys() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000);
+		cache.put("mst.zone", "1");
+		cache.put("mst.ward", "2");
+		cache.put("adm.mst_role", "3");
+
+		assertEquals(2, cache.invalidateIf(key -> key.startsWith("mst.")));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void evictsByWeightAndSkipsOversizedValues() {
+		BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0, 10, String::length);
+		cache.put("a", "1234");
+		cache.put("b", "1234");
+		cache.put("c", "1234");
+
+		assertNull(cache.getIfPresent("a"));
+		assertEquals(8, cache.getWeight());
+
+		cache.put("d", "12345678901");
+		assertNull(cache.getIfPresent("d"));
+		assertEquals(2, cache.size());
+	}
+
+}
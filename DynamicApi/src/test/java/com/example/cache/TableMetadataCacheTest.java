@@ -0,0 +1,101 @@
+package com.example.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+class TableMetadataCacheTest {
+
+	private static TableDescriptor descriptor(String schema, String table) {
+		return new TableDescriptor(schema, table,
+				List.of(new ColumnDescriptor(0, table + "_guid", "uuid", 0, false, false, true, false)),
+				List.of(table + "_guid"), List.of(), List.of());
+	}
+
+	@Test
+	void evictedTablesLoseTheirVersion() throws Exception {
+		TableMetadataCache cache = new TableMetadataCache(true, 1, 60);
+		TableMetadataCache.Loader loader = TableMetadataCacheTest::descriptor;
+
+		TableDescriptor zone = cache.get("mst", "zone", loader);
+		assertTrue(cache.version("mst", "zone", zone) > 0);
+		assertTrue(cache.contains("mst", "zone"));
+
+		// max-entries 1: loading another table evicts zone together with its version
+		cache.get("mst", "ward", loader);
+		assertEquals(-1, cache.version("mst", "zone", zone));
+		assertFalse(cache.contains("mst", "zone"));
+		assertEquals(1, cache.stats().get("size"));
+	}
+
+	@Test
+	void loadOverlappedByAnInvalidationIsNotCached() throws Exception {
+		TableMetadataCache cache = new TableMetadataCache(true, 10, 60);
+		AtomicInteger loads = new AtomicInteger();
+		TableMetadataCache.Loader loader = (schema, table) -> {
+			if (loads.incrementAndGet() == 1) {
+				// e.g. a DDL event arriving while the catalog is read
+				cache.invalidateAll();
+			}
+			return descriptor(schema, table);
+		};
+
+		TableDescriptor first = cache.get("mst", "zone", loader);
+		assertFalse(cache.contains("mst", "zone"));
+		assertEquals(-1, cache.version("mst", "zone", first));
+
+		TableDescriptor second = cache.get("mst", "zone", loader);
+		assertNotSame(first, second);
+		assertTrue(cache.contains("mst", "zone"));
+		assertSame(second, cache.get("mst", "zone", loader));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		TableMetadataCache cache = new TableMetadataCache(true, 10, 60);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TableMetadataCache.Loader loader = (schema, table) -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return descriptor(schema, table);
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<TableDescriptor> leader = executor.submit(() -> cache.get("mst", "zone", loader));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			List<Future<TableDescriptor>> followers = List.of(
+					executor.submit(() -> cache.get("mst", "zone", loader)),
+					executor.submit(() -> cache.get("mst", "zone", loader)));
+			Thread.sleep(100);
+			release.countDown();
+
+			TableDescriptor loaded = leader.get(5, TimeUnit.SECONDS);
+			for (Future<TableDescriptor> follower : followers) {
+				assertSame(loaded, follower.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, loads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
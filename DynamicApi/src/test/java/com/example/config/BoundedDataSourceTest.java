@@ -0,0 +1,38 @@
+package com.example.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class BoundedDataSourceTest {
+
+	private final DriverManagerDataSource target = new DriverManagerDataSource("jdbc:h2:mem:bounded;DB_CLOSE_DELAY=-1", "sa", "");
+
+	@Test
+	void permitIsReturnedOnceOnClose() throws Exception {
+		BoundedDataSource dataSource = new BoundedDataSource(target, 2, 100);
+
+		Connection connection = dataSource.getConnection();
+		assertEquals(1, dataSource.getAvailablePermits());
+
+		connection.close();
+		connection.close();
+		assertEquals(2, dataSource.getAvailablePermits());
+	}
+
+	@Test
+	void waitsAtMostTheAcquireTimeout() throws Exception {
+		BoundedDataSource dataSource = new BoundedDataSource(target, 1, 50);
+
+		try (Connection held = dataSource.getConnection()) {
+			assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+		}
+		try (Connection again = dataSource.getConnection()) {
+			assertTrue(again.isValid(1));
+		}
+	}
+}
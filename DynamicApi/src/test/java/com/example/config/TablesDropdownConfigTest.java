@@ -0,0 +1,58 @@
+package com.example.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class TablesDropdownConfigTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void parsesSchemasTablesAndDropdowns() throws Exception {
+		Path file = write("valid.schema.list = mst, adm ,mst\n"
+				+ "allowed.tables.mst = zone,ward\n"
+				+ "exclude.tables.adm = audit\n"
+				+ "mst.zone.key = zone_guid\n"
+				+ "mst.zone.val = zone_code\n"
+				+ "mst.ward.key = ward_guid\n");
+
+		TablesDropdownConfig config = new TablesDropdownConfig(new DefaultResourceLoader(), "file:" + file, 0);
+
+		assertEquals(List.of("mst", "adm"), config.getValidSchemas());
+		assertTrue(config.isValidSchema("adm"));
+		assertFalse(config.isValidSchema("public"));
+		assertEquals(Set.of("zone", "ward"), config.getAllowedTables("mst"));
+		assertEquals(Set.of("audit"), config.getExcludedTables("adm"));
+		assertTrue(config.getAllowedTables("adm").isEmpty());
+		assertEquals("zone_code", config.getDropdown("mst", "zone").getValueColumn());
+		assertNull(config.getDropdown("mst", "ward"));
+	}
+
+	@Test
+	void reloadsWhenFileChanges() throws Exception {
+		Path file = write("valid.schema.list = mst\n");
+		TablesDropdownConfig config = new TablesDropdownConfig(new DefaultResourceLoader(), "file:" + file, 1);
+		assertFalse(config.isValidSchema("adm"));
+
+		Files.writeString(file, "valid.schema.list = mst,adm\n");
+		file.toFile().setLastModified(System.currentTimeMillis() + 5000);
+		Thread.sleep(1100);
+
+		assertTrue(config.isValidSchema("adm"));
+	}
+
+	private Path write(String content) throws Exception {
+		Path file = dir.resolve("tables-dropdown.properties");
+		Files.writeString(file, content);
+		return file;
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationRelayTest {
+
+	private final LocalInvalidationBus bus = new LocalInvalidationBus();
+
+	private final List<Object> eventsA = new ArrayList<>();
+	private final List<Object> eventsB = new ArrayList<>();
+
+	private final CacheInvalidationRelay nodeA = new CacheInvalidationRelay(bus, eventsA::add, "a");
+	private final CacheInvalidationRelay nodeB = new CacheInvalidationRelay(bus, eventsB::add, "b");
+
+	@Test
+	void localWritesReachOtherNodesOnlyOnce() {
+		nodeA.onTableChange(new TableChangeEvent("mst", "zone", TableChangeEvent.Type.UPDATE));
+
+		assertTrue(eventsA.isEmpty());
+		assertEquals(1, eventsB.size());
+		TableChangeEvent received = (TableChangeEvent) eventsB.get(0);
+		assertTrue(received.isRemote());
+		assertEquals("mst.zone", received.getQualifiedName());
+		assertEquals(TableChangeEvent.Type.UPDATE, received.getType());
+
+		// a remote event is not sent back
+		nodeB.onTableChange(received);
+		assertTrue(eventsA.isEmpty());
+	}
+
+	@Test
+	void ddlFromDatabaseAndFlushReachEveryNode() {
+		bus.publish(InvalidationMessage.parse("db:DDL:mst.ward"));
+		bus.flush("reconnected");
+
+		assertEquals(TableChangeEvent.Type.DDL, ((TableChangeEvent) eventsA.get(0)).getType());
+		assertEquals("mst.ward", ((TableChangeEvent) eventsB.get(0)).getQualifiedName());
+		assertInstanceOf(CacheFlushEvent.class, eventsA.get(1));
+		assertInstanceOf(CacheFlushEvent.class, eventsB.get(1));
+		assertNull(InvalidationMessage.parse("db:ALTER:mst.ward"));
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.cache.TableMetadataCache;
+import com.example.metrics.RequestPhases.Phase;
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+import io.micrometer.core.instrument.binder.http.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CrudMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final TableMetadataCache metadataCache = new TableMetadataCache(true, 10, 60);
+	private final CrudMetrics metrics = new CrudMetrics(registry, metadataCache);
+
+	@Test
+	void nestedPhasesAreChargedToTheOuterPhase() throws Exception {
+		assertEquals("plain", RequestPhases.time(Phase.SQL, () -> "plain"));
+
+		RequestPhases.Recording phases = RequestPhases.begin();
+		RequestPhases.time(Phase.VALIDATION, () -> RequestPhases.time(Phase.SQL, () -> {
+			Thread.sleep(5);
+			return null;
+		}));
+		RequestPhases.serializationStarted(ResponseMetricsAdvice.rowCount(Map.of("data", List.of(1, 2, 3))));
+		RequestPhases.end(phases);
+
+		assertTrue(phases.entered(Phase.VALIDATION));
+		assertTrue(phases.nanos(Phase.VALIDATION) >= 5_000_000L);
+		assertFalse(phases.entered(Phase.SQL));
+		assertTrue(phases.entered(Phase.SERIALIZATION));
+		assertEquals(3, phases.rows());
+		assertFalse(RequestPhases.isRecording());
+	}
+
+	@Test
+	void failedRequestsOnUnknownTablesAreNotTaggedByName() throws Exception {
+		RequestPhases.Recording phases = RequestPhases.begin();
+		RequestPhases.time(Phase.SQL, () -> null);
+		RequestPhases.rows(2);
+		RequestPhases.end(phases);
+		metadataCache.get("mst", "Zone", (schema, table) -> new TableDescriptor(schema, table,
+				List.of(new ColumnDescriptor(0, "zone_guid", "uuid", 0, false, false, true, false)),
+				List.of("zone_guid"), List.of(), List.of()));
+
+		metrics.record("mst", "Zone", "getAll", Outcome.SUCCESS, 1_000_000L, phases, 0, 512);
+		metrics.record("mst", "no_such_table", "getAll", Outcome.CLIENT_ERROR, 1_000_000L, phases, 0, 64);
+
+		assertEquals(1, registry.get(CrudMetrics.REQUESTS).tags("table", "zone", "outcome", "SUCCESS").timer().count());
+		assertEquals(1, registry.get(CrudMetrics.REQUESTS).tags("table", "other", "outcome", "CLIENT_ERROR").timer().count());
+		assertEquals(2, registry.get(CrudMetrics.PHASE).tags("phase", "sql").timers().size());
+		assertEquals(2.0, registry.get(CrudMetrics.ROWS).tags("table", "zone").summary().totalAmount());
+		assertEquals(512.0, registry.get(CrudMetrics.PAYLOAD).tags("table", "zone", "direction", "response").summary().totalAmount());
+	}
+
+	@Test
+	void columnsOfAnUnknownTableAreNotTaggedByName() throws Exception {
+		CrudMetricsFilter filter = new CrudMetricsFilter();
+		ReflectionTestUtils.setField(filter, "metrics", metrics);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new ColumnsController()).addFilters(filter).build();
+
+		// answers 200 with no columns for any name, like the real endpoint
+		mvc.perform(get("/dynamicApi/mst/no_such_table_1/columns")).andExpect(status().isOk());
+		mvc.perform(get("/dynamicApi/mst/no_such_table_2/columns")).andExpect(status().isOk());
+
+		assertEquals(2, registry.get(CrudMetrics.REQUESTS)
+				.tags("schema", "other", "table", "other", "operation", "getTableColumns", "outcome", "SUCCESS").timer().count());
+		assertTrue(registry.find(CrudMetrics.REQUESTS).tag("table", "no_such_table_1").timers().isEmpty());
+	}
+
+	@RestController
+	static class ColumnsController {
+
+		@GetMapping("/dynamicApi/{schema}/{table}/columns")
+		public List<Map<String, Object>> getTableColumns(@PathVariable String schema, @PathVariable String table) {
+			return List.of();
+		}
+	}
+}
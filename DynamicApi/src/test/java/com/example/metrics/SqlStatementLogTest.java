@@ -0,0 +1,89 @@
+package com.example.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SqlStatementLogTest {
+
+	@Test
+	void literalsAndListsAreNormalized() {
+		assertEquals("SELECT * FROM mst.zone WHERE zone_code IN (?, ...) AND ward2 = ? LIMIT ?",
+				SqlStatementLog.normalize("SELECT *  FROM mst.zone\n WHERE zone_code IN (?, ?, ?) AND ward2 = 'it''s' LIMIT 100"));
+		assertEquals("INSERT INTO t (a, b) VALUES (?, ...), ...",
+				SqlStatementLog.normalize("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)"));
+		assertEquals("delete", SqlStatementLog.kind("DELETE FROM t WHERE id = ?"));
+	}
+
+	@Test
+	void statementsAreTimedWithRowsAndParameterTypes() throws Exception {
+		SqlStatementLog statementLog = new SqlStatementLog(true, 0, 100);
+		TimedDataSource dataSource = new TimedDataSource(
+				new DriverManagerDataSource("jdbc:h2:mem:timing;DB_CLOSE_DELAY=-1"), statementLog);
+
+		try (Connection conn = dataSource.getConnection()) {
+			conn.createStatement().execute("CREATE TABLE zone (id INT PRIMARY KEY, code VARCHAR(10))");
+			try (PreparedStatement ps = conn.prepareStatement("INSERT INTO zone (id, code) VALUES (?, ?)")) {
+				for (int i = 1; i <= 3; i++) {
+					ps.setInt(1, i);
+					ps.setObject(2, "Z" + i);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+			try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM zone WHERE id >= ?")) {
+				ps.setInt(1, 2);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						assertNotNull(rs.getString("code"));
+					}
+				}
+			}
+		}
+
+		List<Map<String, Object>> statements = statementLog.slowest(10, "total");
+		Map<String, Object> insert = find(statements, "INSERT INTO zone (id, code) VALUES (?, ...)");
+		assertEquals(3L, insert.get("rows"));
+		assertEquals("[Int, String] x3", insert.get("slowestParams"));
+
+		Map<String, Object> select = find(statements, "SELECT * FROM zone WHERE id >= ?");
+		assertEquals(2L, select.get("rows"));
+		assertEquals("[Int]", select.get("slowestParams"));
+		assertEquals(1L, select.get("slowCount"));
+	}
+
+	@Test
+	void normalizedTextIsMemoisedAndMetersAreRegisteredOnce() {
+		SqlStatementLog statementLog = new SqlStatementLog(true, -1, 100);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		statementLog.bindTo(registry);
+		assertEquals(6, registry.find("dynamic.api.jdbc.statement").timers().size());
+
+		for (int i = 0; i < 3; i++) {
+			statementLog.record("SELECT * FROM t WHERE id = ?", "[Int]", 1_000, 1, 0);
+		}
+		statementLog.recordAcquire(1_000);
+
+		assertEquals(3L, registry.get("dynamic.api.jdbc.statement").tag("kind", "select").timer().count());
+		assertEquals(3.0, registry.get("dynamic.api.jdbc.rows").tag("kind", "select").summary().totalAmount());
+		assertEquals(1L, registry.get("dynamic.api.jdbc.acquire").timer().count());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> shapes = (Map<String, Object>) statementLog.stats().get("shapes");
+		assertEquals(2L, shapes.get("hits"));
+		assertEquals(1, shapes.get("size"));
+	}
+
+	private static Map<String, Object> find(List<Map<String, Object>> statements, String statement) {
+		return statements.stream().filter(s -> statement.equals(s.get("statement"))).findFirst()
+				.orElseThrow(() -> new AssertionError(statement + " not in " + statements));
+	}
+}
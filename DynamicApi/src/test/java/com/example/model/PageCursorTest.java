@@ -0,0 +1,34 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+	@Test
+	void roundTripsThroughEncodedForm() {
+		PageCursor cursor = new PageCursor("zone_code", "Z-01", "8a6e0f2e-3f3c-4d7e-9d36-2d1f0d7f1a11");
+
+		PageCursor decoded = PageCursor.decode(cursor.encode());
+
+		assertEquals("zone_code", decoded.getSortColumn());
+		assertEquals("Z-01", decoded.getSortValue());
+		assertEquals("8a6e0f2e-3f3c-4d7e-9d36-2d1f0d7f1a11", decoded.getKeyValue());
+	}
+
+	@Test
+	void keepsNullSortColumnForPrimaryKeyOrder() {
+		PageCursor decoded = PageCursor.decode(new PageCursor(null, null, "42").encode());
+
+		assertNull(decoded.getSortColumn());
+		assertNull(decoded.getSortValue());
+		assertEquals("42", decoded.getKeyValue());
+	}
+
+	@Test
+	void rejectsGarbage() {
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not-a-cursor"));
+	}
+
+}
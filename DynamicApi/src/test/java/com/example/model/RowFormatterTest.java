@@ -0,0 +1,50 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RowFormatterTest {
+
+	private final TableDescriptor descriptor = new TableDescriptor("mst", "zone",
+			List.of(new ColumnDescriptor(0, "zone_guid", "uuid", 0, false, false, true, false),
+					new ColumnDescriptor(1, "zone_code", "varchar", 20, true, false, false, false),
+					new ColumnDescriptor(2, "created_date", "timestamp", 29, true, false, false, false),
+					new ColumnDescriptor(3, "zone_name_en", "varchar", 50, true, false, false, false)),
+			List.of("zone_guid"), List.of(), List.of());
+
+	@Test
+	void formatsOnlyCodeAndTimestampColumns() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("zone_guid", "g1");
+		row.put("zone_code", "z1");
+		row.put("created_date", Timestamp.valueOf(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 600)));
+		row.put("zone_name_en", "Zone one");
+
+		descriptor.getRowFormatter().formatInPlace(row);
+
+		assertEquals("g1", row.get("zone_guid"));
+		assertEquals("Z1", row.get("zone_code"));
+		assertEquals("2024-01-02T03:04:05", row.get("created_date"));
+		assertEquals("Zone one", row.get("zone_name_en"));
+	}
+
+	@Test
+	void nullsAndMissingColumnsAreLeftAlone() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("zone_code", null);
+
+		descriptor.getRowFormatter().formatInPlace(row);
+
+		assertEquals(1, row.size());
+		assertNull(row.get("zone_code"));
+		assertNull(descriptor.getRowFormatter().transformerFor("zone_name_en"));
+		assertNotNull(descriptor.getRowFormatter().transformerFor("ZONE_CODE"));
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+class JwtUtilTest {
+
+	private static final String SECRET = "testSecretThatIsLongEnoughForHmacSha256Keys";
+
+	@Test
+	void resolvesClaimsOncePerRequest() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, false, 0);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("admin"));
+
+		Claims claims = jwtUtil.resolveClaims(request);
+
+		assertEquals("admin", claims.getSubject());
+		assertSame(claims, request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE));
+		assertSame(claims, jwtUtil.resolveClaims(request));
+		assertEquals("admin", JwtUtil.getUsername(request, "System"));
+	}
+
+	@Test
+	void cachesVerifiedTokens() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, true, 10);
+		String token = jwtUtil.generateToken("admin");
+
+		Claims first = jwtUtil.parseClaims(token);
+		Claims second = jwtUtil.parseClaims(token);
+
+		assertSame(first, second);
+		assertEquals(1L, jwtUtil.cacheStats().get("hits"));
+	}
+
+	@Test
+	void rejectsTokenSignedWithOtherKey() {
+		String token = new JwtUtil(SECRET + "other", false, 0).generateToken("admin");
+
+		assertThrows(JwtException.class, () -> new JwtUtil(SECRET, true, 10).parseClaims(token));
+		assertNull(new JwtUtil(SECRET, false, 0).resolveClaims(new MockHttpServletRequest()));
+	}
+}
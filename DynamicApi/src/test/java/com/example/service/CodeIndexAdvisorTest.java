@@ -0,0 +1,28 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CodeIndexAdvisorTest {
+
+	@Test
+	void statementQuotesIdentifiers() {
+		assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS \"idx_Zone_zone_code_upper\" ON \"mst\".\"Zone\" (UPPER(\"zone_code\"));",
+				CodeIndexAdvisor.createIndexStatement("mst", "Zone", "zone_code", false));
+		assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS \"idx_order_group_code\" ON \"mst\".\"order\" (\"group_code\");",
+				CodeIndexAdvisor.createIndexStatement("mst", "order", "group_code", true));
+	}
+
+	@Test
+	void longNamesStayWithinTheLimitAndDistinct() {
+		String table = "a_rather_long_reference_table_name_for_municipal_wards";
+		String first = CodeIndexAdvisor.indexName(table, "ward_category_code", false);
+		String second = CodeIndexAdvisor.indexName(table, "ward_category_group_code", false);
+
+		assertEquals(63, first.length());
+		assertEquals(63, second.length());
+		assertNotEquals(first, second);
+		assertEquals(first, CodeIndexAdvisor.indexName(table, "ward_category_code", false));
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+class SearchQueryBuilderTest {
+
+	private final TableDescriptor descriptor = new TableDescriptor("mst", "zone",
+			List.of(new ColumnDescriptor(0, "zone_guid", "uuid", 0, false, false, true, false),
+					new ColumnDescriptor(1, "zone_code", "varchar", 20, true, false, false, false),
+					new ColumnDescriptor(2, "zone_name_en", "varchar", 50, true, false, false, false),
+					new ColumnDescriptor(3, "area", "numeric", 10, true, false, false, false),
+					new ColumnDescriptor(4, "status", "varchar", 20, true, false, false, false)),
+			List.of("zone_guid"), List.of(), List.of());
+
+	@Test
+	void buildsTypedConditionsGroupsSortAndLimit() {
+		Map<String, List<String>> params = new LinkedHashMap<>();
+		params.put("zone_code", List.of("in:z1, z2"));
+		params.put("area", List.of("between:1,2.5"));
+		params.put("zone_name_en", List.of("prefix:Zone_"));
+		params.put("or.s.status", List.of("ACTIVE", "is:null"));
+		params.put("fields", List.of("zone_code,area"));
+		params.put("sort", List.of("area,desc"));
+		params.put("limit", List.of("5000"));
+
+		SearchQueryBuilder.Query query = SearchQueryBuilder.build(descriptor, params, true, 1000);
+
+		assertEquals("SELECT \"zone_code\", \"area\" FROM \"mst\".\"zone\" WHERE \"zone_code\" IN (?, ?)"
+				+ " AND \"area\" BETWEEN ? AND ? AND \"zone_name_en\" LIKE ? AND (\"status\" = ? OR \"status\" IS NULL)"
+				+ " ORDER BY \"area\" DESC LIMIT ?",
+				query.getSql());
+		assertEquals(List.of("Z1", "Z2", new BigDecimal("1"), new BigDecimal("2.5"), "Zone\\_%", "ACTIVE", 1000),
+				query.getParams());
+	}
+
+	@Test
+	void keepsLegacyOperatorsAndRejectsUnknownColumns() {
+		SearchQueryBuilder.Query query = SearchQueryBuilder.build(descriptor,
+				Map.of("zone_code", List.of(">=z1")), false, 0);
+
+		assertEquals("SELECT * FROM \"mst\".\"zone\" WHERE UPPER(\"zone_code\") >= ?", query.getSql());
+		assertEquals(List.of("Z1"), query.getParams());
+
+		// same columns and operators, other values: same shape, so the SQL text is shared
+		assertEquals(query.getShape(), SearchQueryBuilder.build(descriptor,
+				Map.of("zone_code", List.of(">=z9")), false, 0).getShape());
+		assertNotEquals(query.getShape(), SearchQueryBuilder.build(descriptor,
+				Map.of("zone_code", List.of("<=z9")), false, 0).getShape());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchQueryBuilder.build(descriptor, Map.of("zone_code; drop", List.of("x")), false, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchQueryBuilder.build(descriptor, Map.of("area", List.of("abc")), false, 0));
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.model.ColumnDescriptor;
+import com.example.model.TableDescriptor;
+
+class UpsertQueryBuilderTest {
+
+	private final TableDescriptor descriptor = new TableDescriptor("mst", "zone",
+			List.of(new ColumnDescriptor(0, "zone_guid", "uuid", 0, false, false, true, false),
+					new ColumnDescriptor(1, "zone_code", "varchar", 20, true, false, false, false),
+					new ColumnDescriptor(2, "zone_name_en", "varchar", 50, true, false, false, false),
+					new ColumnDescriptor(3, "modified_by", "varchar", 50, true, false, false, false)),
+			List.of("zone_guid"), List.of(), List.of());
+
+	@Test
+	void buildsMultiRowUpsertWithInsertedFlag() {
+		assertEquals("INSERT INTO \"mst\".\"zone\" (\"zone_code\", \"zone_name_en\") VALUES (?, ?), (?, ?)"
+				+ " ON CONFLICT (\"zone_code\") DO UPDATE SET \"zone_name_en\" = EXCLUDED.\"zone_name_en\", \"modified_by\" = ?"
+				+ " RETURNING *, (xmax = 0) AS upsert_inserted",
+				UpsertQueryBuilder.sql(descriptor, "zone_code", List.of("zone_code", "zone_name_en"),
+						List.of("zone_name_en"), List.of("modified_by"), 2));
+	}
+
+	@Test
+	void withNothingToUpdateTheTargetIsAssignedSoTheRowIsReturned() {
+		assertEquals("INSERT INTO \"mst\".\"zone\" (\"zone_code\") VALUES (?)"
+				+ " ON CONFLICT (\"zone_code\") DO UPDATE SET \"zone_code\" = EXCLUDED.\"zone_code\""
+				+ " RETURNING *, (xmax = 0) AS upsert_inserted",
+				UpsertQueryBuilder.sql(descriptor, "zone_code", List.of("zone_code"), List.of(), List.of(), 1));
+	}
+
+	@Test
+	void matchesRowsByKeyAndRowsWithoutKeyInStatementOrder() {
+		List<Map<String, Object>> rows = List.of(
+				Map.of("zone_name_en", "new 1"),
+				Map.of("zone_guid", "b", "zone_name_en", "existing"),
+				Map.of("zone_name_en", "new 2"));
+		// returned in statement order, keyed rows matched case-insensitively
+		List<Map<String, Object>> returned = List.of(
+				returnedRow("g1", "new 1", true),
+				returnedRow("B", "existing", false),
+				returnedRow("g2", "new 2", true));
+
+		Map<Integer, Map<String, Object>> stored = new HashMap<>();
+		Map<Integer, Boolean> insertedByRow = new HashMap<>();
+		UpsertQueryBuilder.matchReturnedRows(List.of(0, 1, 2), rows, returned, "zone_guid", stored, insertedByRow);
+
+		assertEquals("g1", stored.get(0).get("zone_guid"));
+		assertEquals("B", stored.get(1).get("zone_guid"));
+		assertEquals("g2", stored.get(2).get("zone_guid"));
+		assertEquals(Map.of(0, true, 1, false, 2, true), insertedByRow);
+		assertFalse(stored.get(0).containsKey(UpsertQueryBuilder.INSERTED_COLUMN));
+	}
+
+	private static Map<String, Object> returnedRow(String guid, String name, boolean inserted) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("zone_guid", guid);
+		row.put("zone_name_en", name);
+		row.put(UpsertQueryBuilder.INSERTED_COLUMN, inserted);
+		return row;
+	}
+}
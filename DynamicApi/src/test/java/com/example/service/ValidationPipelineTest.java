@@ -0,0 +1,63 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.exception.ValidationTimeoutException;
+
+class ValidationPipelineTest {
+
+	private final ValidationPipeline pipeline = new ValidationPipeline(true, 4, 10, 500);
+
+	@AfterEach
+	void shutdown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	void earlierFailureWinsAndLaterChecksAreCancelled() throws Exception {
+		CountDownLatch cancelled = new CountDownLatch(1);
+
+		List<Callable<String>> checks = List.of(
+				() -> {
+					Thread.sleep(50);
+					return "parent missing";
+				},
+				() -> "code exists",
+				() -> {
+					try {
+						Thread.sleep(5_000);
+					} catch (InterruptedException e) {
+						cancelled.countDown();
+					}
+					return null;
+				});
+
+		assertEquals("parent missing", pipeline.firstFailure("test", checks));
+		assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void resultsKeepStepOrderAndSlowStepsTimeOut() throws Exception {
+		assertEquals(List.of(1, 2), pipeline.all("test", List.of(
+				() -> {
+					Thread.sleep(30);
+					return 1;
+				},
+				() -> 2)));
+
+		assertThrows(ValidationTimeoutException.class, () -> pipeline.firstFailure("test", List.<Callable<String>>of(
+				() -> null,
+				() -> {
+					Thread.sleep(5_000);
+					return null;
+				})));
+	}
+}
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 
@@ -58,10 +58,32 @@ getColumns(schema: string, table: string): Observable<any[]> {
     return this.http.post(`${this.baseUrl}/${schema}/${table}`, row);
   }
 
+  // Bulk upload: one request for many rows, the response has a result per row
+  insertBatch(schema: string, table: string, rows: any[]): Observable<any> {
+    return this.http.post(`${this.baseUrl}/${schema}/${table}/batch`, rows);
+  }
+
   getForeignKeyValues(schema: string, table: string, column: string): Observable<any[]> {
     return this.http.get<any[]>(`${this.baseUrl}/${schema}/${table}/fk-values/${column}`);
   }
 
+  // Type-ahead: one page of options whose value starts with q, { data, limit, nextCursor }
+  searchForeignKeyValues(schema: string, table: string, column: string,
+                         q: string, limit = 50, after?: string): Observable<any> {
+    let params = new HttpParams().set('q', q).set('limit', limit);
+    if (after) {
+      params = params.set('after', after);
+    }
+    return this.http.get<any>(`${this.baseUrl}/${schema}/${table}/fk-values/${column}`, { params });
+  }
+
+  // Server-side filtering, e.g. { zone_code: 'in:Z1,Z2', 'or.s.status': ['ACTIVE', 'is:null'], sort: 'zone_code', limit: 50 }
+  searchRows(schema: string, table: string,
+             filters: { [param: string]: string | number | (string | number)[] }): Observable<any[]> {
+    const params = new HttpParams({ fromObject: filters });
+    return this.http.get<any[]>(`${this.baseUrl}/${schema}/${table}/search`, { params });
+  }
+
   getConstraints(schema: string, table: string): Observable<any[]> {
     return this.http.get<any[]>(`${this.baseUrl}/${schema}/${table}/constraints`);
   }